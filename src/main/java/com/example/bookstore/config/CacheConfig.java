@@ -0,0 +1,15 @@
+package com.example.bookstore.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Cache advice wraps the transactional one, so evictions run after commit
+ * and a concurrent read can't put back the pre-commit state.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+    public static final String BOOKS_CACHE = "books";
+}
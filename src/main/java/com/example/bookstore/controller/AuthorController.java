@@ -0,0 +1,31 @@
+package com.example.bookstore.controller;
+
+import com.example.bookstore.service.AuthorService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Book-store api", description = "Endpoints for authors")
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/authors")
+public class AuthorController {
+    private final AuthorService authorService;
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest authors",
+            description = "Author names starting with prefix, case-insensitive, "
+                    + "in alphabetical order. At most 50")
+    public ResponseEntity<List<String>> suggest(@RequestParam String prefix,
+                                                @RequestParam(defaultValue = "10") int limit) {
+        List<String> suggestions = authorService.suggest(prefix, limit);
+        return ResponseEntity.status(HttpStatus.OK).body(suggestions);
+    }
+}
@@ -1,15 +1,29 @@
 package com.example.bookstore.controller;
 
+import com.example.bookstore.dto.book.BookCursorPageDto;
 import com.example.bookstore.dto.book.BookDto;
+import com.example.bookstore.dto.book.BookFacetedPageDto;
+import com.example.bookstore.dto.book.BookImportReportDto;
 import com.example.bookstore.dto.book.BookSearchParams;
+import com.example.bookstore.dto.book.BookStockDto;
 import com.example.bookstore.dto.book.CreateBookRequestDto;
+import com.example.bookstore.dto.book.UpdateStockRequestDto;
+import com.example.bookstore.export.BookExportFormat;
+import com.example.bookstore.service.BookImportService;
 import com.example.bookstore.service.BookService;
+import com.example.bookstore.service.StockService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -20,8 +34,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @Tag(name = "Book-store api", description = "Endpoints for managing books")
 @RequiredArgsConstructor
@@ -29,6 +45,8 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping(value = "/api/books")
 public class BookController {
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final StockService stockService;
 
     @GetMapping
     @Operation(summary = "Get all books",
@@ -38,11 +56,52 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.OK).body(all);
     }
 
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Get all books by cursor",
+            description = "Keyset pagination without count query. Pass an empty cursor "
+                    + "for the first page, then the nextCursor of the previous page")
+    public ResponseEntity<BookCursorPageDto> getAllByCursor(
+            @RequestParam(required = false) String cursor, Pageable pageable) {
+        BookCursorPageDto page = bookService.findAll(cursor, pageable);
+        return ResponseEntity.status(HttpStatus.OK).body(page);
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/export")
+    @Operation(summary = "Export all books",
+            description = "Streams the whole catalog as NDJSON (default) or CSV")
+    public void export(@RequestParam(defaultValue = "NDJSON") BookExportFormat format,
+                       HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("books." + format.getExtension())
+                .build()
+                .toString());
+        bookService.exportAll(format, response.getOutputStream());
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/import")
+    @Operation(summary = "Import books",
+            description = "Bulk import from an NDJSON (default) or CSV body in the export layout. "
+                    + "Valid rows are saved in batches, rejected rows are listed by line")
+    public ResponseEntity<BookImportReportDto> importBooks(
+            @RequestParam(defaultValue = "NDJSON") BookExportFormat format,
+            InputStream body) throws IOException {
+        BookImportReportDto report = bookImportService.importBooks(format, body);
+        return ResponseEntity.status(HttpStatus.OK).body(report);
+    }
+
     @GetMapping("/{id}")
-    @Operation(summary = "Get book by id", description = "Get book by id if it exists")
-    public ResponseEntity<BookDto> getBookById(@PathVariable Long id) {
+    @Operation(summary = "Get book by id", description = "Get book by id if it exists. "
+            + "Supports If-None-Match and If-Modified-Since")
+    public ResponseEntity<BookDto> getBookById(@PathVariable Long id, WebRequest request) {
         BookDto byId = bookService.findById(id);
-        return ResponseEntity.status(HttpStatus.OK).body(byId);
+        if (EntityVersionHeaders.isNotModified(request, byId.getVersion(), byId.getUpdatedAt())) {
+            return EntityVersionHeaders.notModified();
+        }
+        return EntityVersionHeaders.ok(byId, byId.getVersion(), byId.getUpdatedAt());
     }
 
     @PreAuthorize("hasRole('ROLE_ADMIN')")
@@ -63,6 +122,24 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.OK).body(update);
     }
 
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/{id}/stock")
+    @Operation(summary = "Get book stock",
+            description = "Units in stock, null when the book's stock is not tracked")
+    public ResponseEntity<BookStockDto> getStock(@PathVariable Long id) {
+        return ResponseEntity.status(HttpStatus.OK).body(stockService.getStock(id));
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PutMapping("/{id}/stock")
+    @Operation(summary = "Set book stock",
+            description = "Set the units in stock; checkout reserves from it from now on")
+    public ResponseEntity<BookStockDto> setStock(@PathVariable Long id,
+                                                 @RequestBody @Valid UpdateStockRequestDto dto) {
+        BookStockDto stock = stockService.setStock(id, dto.getQuantity());
+        return ResponseEntity.status(HttpStatus.OK).body(stock);
+    }
+
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @DeleteMapping("/{id}")
@@ -80,6 +157,36 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.OK).body(search);
     }
 
+    @GetMapping(value = "/search", params = {"facets=true", "!cursor", "!q"})
+    @Operation(summary = "Search book by params with facet counts",
+            description = "Same params as search, plus author, price bucket and category "
+                    + "counts over all matching books")
+    public ResponseEntity<BookFacetedPageDto> searchWithFacets(
+            BookSearchParams bookSearchParameters, Pageable pageable) {
+        BookFacetedPageDto search = bookService.searchWithFacets(bookSearchParameters, pageable);
+        return ResponseEntity.status(HttpStatus.OK).body(search);
+    }
+
+    @GetMapping(value = "/search", params = {"cursor", "!q"})
+    @Operation(summary = "Search book by params with cursor",
+            description = "Same params as search, paged by keyset cursor")
+    public ResponseEntity<BookCursorPageDto> searchByCursor(
+            BookSearchParams bookSearchParameters,
+            @RequestParam(required = false) String cursor, Pageable pageable) {
+        BookCursorPageDto search = bookService.search(bookSearchParameters, cursor, pageable);
+        return ResponseEntity.status(HttpStatus.OK).body(search);
+    }
+
+    @GetMapping(value = "/search", params = "q")
+    @Operation(summary = "Full-text search",
+            description = "Ranked search over title, author and description. "
+                    + "Every word of q must match")
+    public ResponseEntity<List<BookDto>> fullTextSearch(@RequestParam String q,
+                                                        Pageable pageable) {
+        List<BookDto> search = bookService.fullTextSearch(q, pageable);
+        return ResponseEntity.status(HttpStatus.OK).body(search);
+    }
+
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @PostMapping("/{bookId}/categories/{categoryId}")
     @Operation(
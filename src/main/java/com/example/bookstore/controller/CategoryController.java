@@ -23,6 +23,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @Tag(name = "Book-store api", description = "Endpoints for managing categories")
 @RequiredArgsConstructor
@@ -42,10 +43,15 @@ public class CategoryController {
 
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @GetMapping("/{id}")
-    @Operation(summary = "Get category by id", description = "Get category by id if it exists")
-    public ResponseEntity<CategoryDto> getCategoryById(@PathVariable Long id) {
+    @Operation(summary = "Get category by id", description = "Get category by id if it exists. "
+            + "Supports If-None-Match and If-Modified-Since")
+    public ResponseEntity<CategoryDto> getCategoryById(@PathVariable Long id,
+                                                       WebRequest request) {
+        if (EntityVersionHeaders.isNotModified(request, categoryService.findVersionById(id))) {
+            return EntityVersionHeaders.notModified();
+        }
         CategoryDto byId = categoryService.findById(id);
-        return ResponseEntity.status(HttpStatus.OK).body(byId);
+        return EntityVersionHeaders.ok(byId, byId.getVersion(), byId.getUpdatedAt());
     }
 
     @PreAuthorize("hasRole('ROLE_ADMIN')")
@@ -0,0 +1,70 @@
+package com.example.bookstore.controller;
+
+import com.example.bookstore.dto.version.EntityVersionDto;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Strong ETag and Last-Modified validators built from an entity version, so a matching
+ * conditional GET can be answered with 304 before the entity is loaded. Cached entities
+ * are validated against the version of the copy being served instead. Entities without
+ * a modification time use the ETag alone.
+ */
+final class EntityVersionHeaders {
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private EntityVersionHeaders() {
+    }
+
+    static boolean isNotModified(WebRequest request, EntityVersionDto version) {
+        return isNotModified(request, version.getVersion(), version.getUpdatedAt());
+    }
+
+    static boolean isNotModified(WebRequest request, Long version, LocalDateTime updatedAt) {
+        return request.checkNotModified(entityTag(version), lastModified(updatedAt));
+    }
+
+    static boolean isNotModified(WebRequest request, Long version) {
+        return request.checkNotModified(entityTag(version));
+    }
+
+    static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(CACHE_CONTROL)
+                .build();
+    }
+
+    static <T> ResponseEntity<T> ok(T body, Long version, LocalDateTime updatedAt) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(entityTag(version))
+                .lastModified(lastModified(updatedAt))
+                .cacheControl(CACHE_CONTROL)
+                .body(body);
+    }
+
+    static <T> ResponseEntity<T> ok(T body, Long version) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(entityTag(version))
+                .cacheControl(CACHE_CONTROL)
+                .body(body);
+    }
+
+    static <T> ResponseEntity<T> noContent(Long version) {
+        return ResponseEntity.status(HttpStatus.NO_CONTENT)
+                .eTag(entityTag(version))
+                .cacheControl(CACHE_CONTROL)
+                .build();
+    }
+
+    private static String entityTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static long lastModified(LocalDateTime updatedAt) {
+        return updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -1,25 +1,39 @@
 package com.example.bookstore.controller;
 
+import com.example.bookstore.dto.order.BulkOrderStatusRequestDto;
+import com.example.bookstore.dto.order.BulkOrderStatusResultDto;
 import com.example.bookstore.dto.order.OrderDto;
 import com.example.bookstore.dto.order.OrderItemDto;
+import com.example.bookstore.dto.order.OrderSummaryPageDto;
 import com.example.bookstore.dto.order.PostOrderRequestDto;
 import com.example.bookstore.dto.order.PutOrderRequest;
+import com.example.bookstore.exception.InvalidOrderRequestException;
+import com.example.bookstore.service.AsyncOrderService;
+import com.example.bookstore.service.IdempotentOrderService;
 import com.example.bookstore.service.OrderService;
+import com.example.bookstore.service.OrderStatusService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @Tag(name = "Book-store api", description = "Endpoints for managing orders")
@@ -27,25 +41,72 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping(value = "/api/orders")
 public class OrderController {
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
     private final OrderService orderService;
+    private final IdempotentOrderService idempotentOrderService;
+    private final AsyncOrderService asyncOrderService;
+    private final OrderStatusService orderStatusService;
 
     @PostMapping
     @Operation(summary = "Place new order",
-            description = "Create a new order based on the items in the shopping cart")
+            description = "Create a new order based on the items in the shopping cart. "
+                    + "Retries with the same Idempotency-Key return the first order.")
     ResponseEntity<OrderDto> placeOrder(@RequestBody PostOrderRequestDto dto,
+                                        @RequestHeader(value = IDEMPOTENCY_KEY,
+                                                required = false) String idempotencyKey,
                                         Authentication authentication) {
-        OrderDto orderDto = orderService.placeOrder(authentication, dto);
+        OrderDto orderDto = StringUtils.hasText(idempotencyKey)
+                ? idempotentOrderService.placeOrder(authentication, idempotencyKey, dto)
+                : orderService.placeOrder(authentication, dto);
         return ResponseEntity.status(HttpStatus.CREATED).body(orderDto);
     }
 
+    @PostMapping(params = "async=true")
+    @Operation(summary = "Place new order asynchronously",
+            description = "Accept the order with 202 and check the cart out on a worker. "
+                    + "Poll the Location: status PENDING turns PROCESSED, or CANCELED when "
+                    + "checkout fails. 503 with Retry-After when the queue is full, 400 "
+                    + "with an Idempotency-Key")
+    ResponseEntity<OrderDto> placeOrderAsync(@RequestBody @Valid PostOrderRequestDto dto,
+                                             @RequestHeader(value = IDEMPOTENCY_KEY,
+                                                     required = false) String idempotencyKey,
+                                             Authentication authentication) {
+        if (StringUtils.hasText(idempotencyKey)) {
+            throw new InvalidOrderRequestException(
+                    "Idempotency-Key is not supported for asynchronous orders");
+        }
+        OrderDto accepted = asyncOrderService.placeOrder(authentication, dto);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/orders/" + accepted.getId()))
+                .body(accepted);
+    }
+
     @GetMapping
     @Operation(summary = "Get all orders",
-            description = "Retrieve a list of all orders")
-    ResponseEntity<List<OrderDto>> getAllOrders(Authentication authentication, Pageable pageable) {
-        List<OrderDto> orderDtoList = orderService.getAll(authentication, pageable);
+            description = "Retrieve a list of all orders, only those placed at or after "
+                    + "from and before to when given (ISO date-time)")
+    ResponseEntity<List<OrderDto>> getAllOrders(
+            Authentication authentication,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime to, Pageable pageable) {
+        List<OrderDto> orderDtoList = orderService.getAll(authentication, from, to, pageable);
         return ResponseEntity.status(HttpStatus.OK).body(orderDtoList);
     }
 
+    @GetMapping(params = "summary=true")
+    @Operation(summary = "Get order summaries",
+            description = "Id, date, status, total and item count of the orders, newest "
+                    + "first, paged by keyset cursor. Pass the nextCursor of the previous "
+                    + "page as cursor; order items load only with the order by id")
+    ResponseEntity<OrderSummaryPageDto> getOrderSummaries(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor, Pageable pageable) {
+        OrderSummaryPageDto page = orderService.getSummaries(authentication, cursor, pageable);
+        return ResponseEntity.status(HttpStatus.OK).body(page);
+    }
+
     @GetMapping("/{orderId}")
     @Operation(summary = "Get order by id",
             description = "Retrieve order with all information")
@@ -85,4 +146,17 @@ public class OrderController {
         OrderDto orderDto = orderService.updateStatus(authentication, id, dto);
         return ResponseEntity.status(HttpStatus.OK).body(orderDto);
     }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PutMapping("/status")
+    @Operation(summary = "Bulk update order status",
+            description = "Move the given ids, or up to limit orders in fromStatus (of one "
+                    + "userId if given), to status. Only NEW -> PROCESSED -> SHIPPED -> "
+                    + "DELIVERED and cancellation before shipping are allowed; other orders "
+                    + "are listed as rejected with the reason")
+    ResponseEntity<BulkOrderStatusResultDto> updateOrderStatuses(
+            @RequestBody @Valid BulkOrderStatusRequestDto dto) {
+        BulkOrderStatusResultDto result = orderStatusService.updateStatuses(dto);
+        return ResponseEntity.status(HttpStatus.OK).body(result);
+    }
 }
@@ -1,24 +1,29 @@
 package com.example.bookstore.controller;
 
 import com.example.bookstore.dto.cart.AddItemToCartRequest;
+import com.example.bookstore.dto.cart.CartDeltaDto;
+import com.example.bookstore.dto.cart.CartResponseMode;
 import com.example.bookstore.dto.cart.ShoppingCartDto;
+import com.example.bookstore.dto.cart.UpdateCartRequest;
 import com.example.bookstore.dto.cart.UpdateItemRequest;
 import com.example.bookstore.service.ShoppingCartService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @Tag(name = "Book-store api", description = "Endpoints for managing shopping cart")
 @RequiredArgsConstructor
@@ -29,38 +34,73 @@ public class ShoppingCartController {
 
     @GetMapping
     @Operation(summary = "Get shoppingCart by user",
-            description = "Retrieve the shopping cart with all added items")
-    public ResponseEntity<ShoppingCartDto> getShoppingCart(Authentication authentication) {
+            description = "Retrieve the shopping cart with all added items. Answers 304 when "
+                    + "If-None-Match holds the current cart version")
+    public ResponseEntity<ShoppingCartDto> getShoppingCart(Authentication authentication,
+                                                           WebRequest request) {
+        if (EntityVersionHeaders.isNotModified(request,
+                shoppingCartService.findVersion(authentication))) {
+            return EntityVersionHeaders.notModified();
+        }
         ShoppingCartDto byUser = shoppingCartService.getByUser(authentication);
-        return ResponseEntity.status(HttpStatus.OK).body(byUser);
+        return EntityVersionHeaders.ok(byUser, byUser.getVersion());
     }
 
     @PostMapping
     @Operation(summary = "Add item to cart",
-            description = "Add a new item to the shopping cart")
-    public ResponseEntity<ShoppingCartDto> createCategory(Authentication authentication,
-             @RequestBody @Valid AddItemToCartRequest requestDto) {
-        ShoppingCartDto shoppingCartDto = shoppingCartService.addToCart(authentication, requestDto);
-        return ResponseEntity.status(HttpStatus.OK).body(shoppingCartDto);
+            description = "Add a new item to the shopping cart. response=DELTA returns only "
+                    + "the new version and changed line, response=NONE answers 204")
+    public ResponseEntity<?> createCategory(Authentication authentication,
+             @RequestBody @Valid AddItemToCartRequest requestDto,
+             @RequestParam(defaultValue = "FULL") CartResponseMode response) {
+        CartDeltaDto delta = shoppingCartService.addToCart(authentication, requestDto);
+        return respond(authentication, delta, response);
+    }
+
+    @PatchMapping
+    @Operation(summary = "Apply a batch of cart changes",
+            description = "Apply up to 100 add, set-quantity and remove operations, keyed by "
+                    + "book id, in one transaction and return the resulting cart")
+    public ResponseEntity<?> updateCart(Authentication authentication,
+             @RequestBody @Valid UpdateCartRequest requestDto,
+             @RequestParam(defaultValue = "FULL") CartResponseMode response) {
+        CartDeltaDto delta = shoppingCartService.updateCart(authentication, requestDto);
+        return respond(authentication, delta, response);
     }
 
     @PutMapping("/cart-items/{id}")
     @Operation(summary = "Update quantity of item in cart",
             description = "Update the quantity of a specific item in the shopping cart")
-    public ResponseEntity<ShoppingCartDto> update(@PathVariable Long id,
-                                  @RequestBody @Valid UpdateItemRequest requestDto,
-                                  Authentication authentication) {
-        ShoppingCartDto shoppingCartDto = shoppingCartService.updateCartItem(authentication,
+    public ResponseEntity<?> update(@PathVariable Long id,
+                                    @RequestBody @Valid UpdateItemRequest requestDto,
+                                    Authentication authentication,
+                                    @RequestParam(defaultValue = "FULL")
+                                    CartResponseMode response) {
+        CartDeltaDto delta = shoppingCartService.updateCartItem(authentication,
                 id, requestDto);
-        return ResponseEntity.status(HttpStatus.OK).body(shoppingCartDto);
+        return respond(authentication, delta, response);
     }
 
     @DeleteMapping("/cart-items/{id}")
     @Operation(summary = "Remove cart-item by id",
             description = "Remove an item from the shopping cart")
-    public ResponseEntity<ShoppingCartDto> getBooksByCategoryId(@PathVariable Long id,
-                                                Authentication authentication) {
-        ShoppingCartDto shoppingCartDto = shoppingCartService.deleteCartItem(id, authentication);
-        return ResponseEntity.status(HttpStatus.OK).body(shoppingCartDto);
+    public ResponseEntity<?> getBooksByCategoryId(@PathVariable Long id,
+                                                  Authentication authentication,
+                                                  @RequestParam(defaultValue = "FULL")
+                                                  CartResponseMode response) {
+        CartDeltaDto delta = shoppingCartService.deleteCartItem(id, authentication);
+        return respond(authentication, delta, response);
+    }
+
+    private ResponseEntity<?> respond(Authentication authentication, CartDeltaDto delta,
+                                      CartResponseMode response) {
+        return switch (response) {
+            case FULL -> {
+                ShoppingCartDto shoppingCartDto = shoppingCartService.getByUser(authentication);
+                yield EntityVersionHeaders.ok(shoppingCartDto, shoppingCartDto.getVersion());
+            }
+            case DELTA -> EntityVersionHeaders.ok(delta, delta.getVersion());
+            case NONE -> EntityVersionHeaders.noContent(delta.getVersion());
+        };
     }
 }
@@ -0,0 +1,14 @@
+package com.example.bookstore.dto.book;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookCursorPageDto {
+    private List<BookDto> content;
+    private String nextCursor;
+}
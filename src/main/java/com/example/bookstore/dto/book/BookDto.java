@@ -1,6 +1,8 @@
 package com.example.bookstore.dto.book;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 import lombok.Builder;
@@ -19,4 +21,8 @@ public class BookDto {
     @Builder.Default
     private Set<Long> categoryIds = new HashSet<>();
     private boolean isDeleted;
+    @JsonIgnore
+    private Long version;
+    @JsonIgnore
+    private LocalDateTime updatedAt;
 }
@@ -0,0 +1,16 @@
+package com.example.bookstore.dto.book;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookFacetsDto {
+    private long total;
+    private List<FacetCountDto<String>> authors;
+    private List<PriceBucketDto> prices;
+    private List<FacetCountDto<Long>> categories;
+}
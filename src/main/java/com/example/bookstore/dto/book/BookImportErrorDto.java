@@ -0,0 +1,13 @@
+package com.example.bookstore.dto.book;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportErrorDto {
+    private long line;
+    private String message;
+}
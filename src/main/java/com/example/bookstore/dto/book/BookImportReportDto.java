@@ -0,0 +1,12 @@
+package com.example.bookstore.dto.book;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class BookImportReportDto {
+    private long imported;
+    private long rejected;
+    private List<BookImportErrorDto> errors = new ArrayList<>();
+}
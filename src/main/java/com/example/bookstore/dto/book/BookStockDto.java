@@ -0,0 +1,16 @@
+package com.example.bookstore.dto.book;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookStockDto {
+    private Long bookId;
+    /**
+     * Units in stock, or null when the book's stock is not tracked.
+     */
+    private Integer quantity;
+}
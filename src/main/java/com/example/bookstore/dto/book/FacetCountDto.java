@@ -0,0 +1,13 @@
+package com.example.bookstore.dto.book;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCountDto<T> {
+    private T value;
+    private long count;
+}
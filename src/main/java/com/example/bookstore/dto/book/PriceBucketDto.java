@@ -0,0 +1,15 @@
+package com.example.bookstore.dto.book;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceBucketDto {
+    private BigDecimal from;
+    private BigDecimal to;
+    private long count;
+}
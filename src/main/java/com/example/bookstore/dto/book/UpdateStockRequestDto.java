@@ -0,0 +1,12 @@
+package com.example.bookstore.dto.book;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class UpdateStockRequestDto {
+    @NotNull
+    @Min(0)
+    private Integer quantity;
+}
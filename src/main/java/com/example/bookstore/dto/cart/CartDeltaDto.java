@@ -0,0 +1,12 @@
+package com.example.bookstore.dto.cart;
+
+import java.util.Set;
+import lombok.Data;
+
+@Data
+public class CartDeltaDto {
+    private Long shoppingCartId;
+    private Long version;
+    private Set<CartItemDto> changedItems;
+    private Set<Long> removedBookIds;
+}
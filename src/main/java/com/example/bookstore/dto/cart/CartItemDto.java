@@ -1,5 +1,6 @@
 package com.example.bookstore.dto.cart;
 
+import java.math.BigDecimal;
 import lombok.Data;
 
 @Data
@@ -7,5 +8,7 @@ public class CartItemDto {
     private Long id;
     private Long shoppingCartId;
     private Long bookId;
+    private String bookTitle;
+    private BigDecimal price;
     private Long quantity;
 }
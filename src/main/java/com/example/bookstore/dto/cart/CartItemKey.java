@@ -0,0 +1,12 @@
+package com.example.bookstore.dto.cart;
+
+/**
+ * Cart, book and current cart version of a cart line, whether or not the line is deleted.
+ */
+public interface CartItemKey {
+    Long getShoppingCartId();
+
+    Long getBookId();
+
+    Long getVersion();
+}
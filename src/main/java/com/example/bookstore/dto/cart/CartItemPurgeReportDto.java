@@ -0,0 +1,10 @@
+package com.example.bookstore.dto.cart;
+
+import lombok.Data;
+
+@Data
+public class CartItemPurgeReportDto {
+    private long deletedLines;
+    private long abandonedLines;
+    private boolean archived;
+}
@@ -0,0 +1,22 @@
+package com.example.bookstore.dto.cart;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One row of the cart read query: the cart and one of its lines with the book fields
+ * the cart shows. The line fields are null for an empty cart.
+ */
+@Data
+@AllArgsConstructor
+public class CartLineDto {
+    private Long shoppingCartId;
+    private Long userId;
+    private Long version;
+    private Long itemId;
+    private Long bookId;
+    private String bookTitle;
+    private BigDecimal price;
+    private Integer quantity;
+}
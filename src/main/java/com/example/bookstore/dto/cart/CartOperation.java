@@ -0,0 +1,25 @@
+package com.example.bookstore.dto.cart;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class CartOperation {
+    @NotNull
+    private Type type;
+    @NotNull
+    @Positive
+    private Long bookId;
+    @Min(0)
+    @Max(10_000)
+    private int quantity;
+
+    public enum Type {
+        ADD,
+        SET_QUANTITY,
+        REMOVE
+    }
+}
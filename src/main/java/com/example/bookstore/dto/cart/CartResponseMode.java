@@ -0,0 +1,11 @@
+package com.example.bookstore.dto.cart;
+
+/**
+ * What a cart mutation sends back: the whole cart, only the new version and the changed
+ * lines, or nothing but the new version in the {@code ETag} header.
+ */
+public enum CartResponseMode {
+    FULL,
+    DELTA,
+    NONE
+}
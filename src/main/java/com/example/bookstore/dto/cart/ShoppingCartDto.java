@@ -7,6 +7,7 @@ import lombok.Data;
 public class ShoppingCartDto {
     private Long id;
     private Long userId;
+    private Long version;
     private Set<CartItemDto> cartItemIds;
     private boolean isDeleted;
 }
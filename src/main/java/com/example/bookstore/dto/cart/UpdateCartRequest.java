@@ -0,0 +1,15 @@
+package com.example.bookstore.dto.cart;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class UpdateCartRequest {
+    @NotEmpty
+    @Size(max = 100)
+    private List<@Valid @NotNull CartOperation> operations;
+}
@@ -1,5 +1,7 @@
 package com.example.bookstore.dto.category;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.LocalDateTime;
 import lombok.Data;
 
 @Data
@@ -8,4 +10,8 @@ public class CategoryDto {
     private String name;
     private String description;
     private boolean isDeleted;
+    @JsonIgnore
+    private Long version;
+    @JsonIgnore
+    private LocalDateTime updatedAt;
 }
@@ -0,0 +1,28 @@
+package com.example.bookstore.dto.order;
+
+import com.example.bookstore.model.Order;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.util.Set;
+import lombok.Data;
+
+/**
+ * Moves either the given orders, or up to {@code limit} orders currently in
+ * {@code fromStatus} (optionally of one user), to {@code status}.
+ */
+@Data
+public class BulkOrderStatusRequestDto {
+    @NotNull
+    private Order.Status status;
+    private Set<Long> ids;
+    private Order.Status fromStatus;
+    private Long userId;
+    @Min(1)
+    private Integer limit;
+
+    @AssertTrue(message = "give either ids or fromStatus")
+    boolean isIdsOrFilter() {
+        return (ids == null || ids.isEmpty()) != (fromStatus == null);
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.bookstore.dto.order;
+
+import java.util.List;
+
+public record BulkOrderStatusResultDto(int updated, List<OrderStatusRejectionDto> rejected) {
+}
@@ -1,8 +1,12 @@
 package com.example.bookstore.dto.order;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class OrderItemDto {
     private Long id;
     private Long bookId;
@@ -0,0 +1,10 @@
+package com.example.bookstore.dto.order;
+
+import com.example.bookstore.model.Order;
+
+/**
+ * An order a bulk status change left alone; {@code status} is null when there is no such
+ * order.
+ */
+public record OrderStatusRejectionDto(Long id, Order.Status status, String reason) {
+}
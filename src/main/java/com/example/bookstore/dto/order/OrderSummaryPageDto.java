@@ -0,0 +1,14 @@
+package com.example.bookstore.dto.order;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryPageDto {
+    private List<OrderSummaryDto> content;
+    private String nextCursor;
+}
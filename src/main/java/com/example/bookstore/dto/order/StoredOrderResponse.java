@@ -0,0 +1,4 @@
+package com.example.bookstore.dto.order;
+
+public record StoredOrderResponse(String requestHash, String response) {
+}
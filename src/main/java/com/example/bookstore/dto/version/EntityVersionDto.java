@@ -0,0 +1,12 @@
+package com.example.bookstore.dto.version;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class EntityVersionDto {
+    private Long version;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,4 @@
+package com.example.bookstore.event;
+
+public record BookDeletedEvent(Long bookId) {
+}
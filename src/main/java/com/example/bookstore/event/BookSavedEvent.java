@@ -0,0 +1,6 @@
+package com.example.bookstore.event;
+
+import com.example.bookstore.dto.book.BookDto;
+
+public record BookSavedEvent(BookDto book) {
+}
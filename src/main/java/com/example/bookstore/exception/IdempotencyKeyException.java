@@ -0,0 +1,7 @@
+package com.example.bookstore.exception;
+
+public class IdempotencyKeyException extends RuntimeException {
+    public IdempotencyKeyException(String message) {
+        super(message);
+    }
+}
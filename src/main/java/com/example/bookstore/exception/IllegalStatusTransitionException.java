@@ -0,0 +1,7 @@
+package com.example.bookstore.exception;
+
+public class IllegalStatusTransitionException extends RuntimeException {
+    public IllegalStatusTransitionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.bookstore.export;
+
+import com.example.bookstore.dto.book.BookDto;
+import java.io.Flushable;
+import java.io.IOException;
+
+public interface BookExportWriter extends Flushable {
+    void write(BookDto book) throws IOException;
+}
@@ -0,0 +1,64 @@
+package com.example.bookstore.export;
+
+import com.example.bookstore.dto.book.BookDto;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+
+public class CsvBookExportWriter implements BookExportWriter {
+    private static final String HEADER =
+            "id,title,author,isbn,price,description,coverImage,categoryIds";
+    private static final String LINE_SEPARATOR = "\r\n";
+    private final Writer writer;
+
+    public CsvBookExportWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(HEADER);
+        writer.write(LINE_SEPARATOR);
+    }
+
+    @Override
+    public void write(BookDto book) throws IOException {
+        writer.write(String.valueOf(book.getId()));
+        writer.write(',');
+        writeField(book.getTitle());
+        writer.write(',');
+        writeField(book.getAuthor());
+        writer.write(',');
+        writeField(book.getIsbn());
+        writer.write(',');
+        writeField(book.getPrice() == null ? null : book.getPrice().toPlainString());
+        writer.write(',');
+        writeField(book.getDescription());
+        writer.write(',');
+        writeField(book.getCoverImage());
+        writer.write(',');
+        writeField(book.getCategoryIds().stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(";")));
+        writer.write(LINE_SEPARATOR);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.bookstore.export;
+
+import com.example.bookstore.dto.book.BookDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+
+public class NdjsonBookExportWriter implements BookExportWriter {
+    private final OutputStream out;
+    private final ObjectWriter objectWriter;
+
+    public NdjsonBookExportWriter(OutputStream out, ObjectMapper objectMapper) {
+        this.out = out;
+        this.objectWriter = objectMapper.writerFor(BookDto.class);
+    }
+
+    @Override
+    public void write(BookDto book) throws IOException {
+        out.write(objectWriter.writeValueAsBytes(book));
+        out.write('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.bookstore.imports;
+
+import java.io.IOException;
+
+public interface BookImportReader {
+    /**
+     * Returns the next row of the upload, or {@code null} once the input is exhausted.
+     */
+    BookImportRow next() throws IOException;
+}
@@ -0,0 +1,16 @@
+package com.example.bookstore.imports;
+
+import com.example.bookstore.dto.book.CreateBookRequestDto;
+import java.util.Set;
+
+public record BookImportRow(long line, CreateBookRequestDto book,
+                            Set<Long> categoryIds, String error) {
+    public static BookImportRow valid(long line, CreateBookRequestDto book,
+                                      Set<Long> categoryIds) {
+        return new BookImportRow(line, book, categoryIds, null);
+    }
+
+    public static BookImportRow rejected(long line, String error) {
+        return new BookImportRow(line, null, Set.of(), error);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.bookstore.imports;
+
+import com.example.bookstore.dto.book.CreateBookRequestDto;
+import com.example.bookstore.exception.BookImportException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads the CSV layout written by the export: a header row naming the columns,
+ * RFC 4180 quoting and {@code ;}-separated categoryIds. Unknown columns are ignored.
+ */
+public class CsvBookImportReader implements BookImportReader {
+    private static final int MAX_FIELD_LENGTH = 65_535;
+    private static final List<String> REQUIRED_COLUMNS =
+            List.of("title", "author", "isbn", "price");
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long line = 1;
+    private String recordError;
+
+    public CsvBookImportReader(InputStream in) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new BookImportException("CSV upload is empty, expected a header row");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).replace("\uFEFF", "").trim(), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream()
+                .filter(column -> !columns.containsKey(column))
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new BookImportException("CSV header is missing columns " + missing);
+        }
+    }
+
+    @Override
+    public BookImportRow next() throws IOException {
+        List<String> record;
+        long recordLine;
+        do {
+            recordLine = line;
+            record = readRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (record.size() == 1 && record.get(0).isBlank() && recordError == null);
+        if (recordError != null) {
+            return BookImportRow.rejected(recordLine, recordError);
+        }
+        BigDecimal price;
+        try {
+            String value = field(record, "price");
+            price = value == null ? null : new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            return BookImportRow.rejected(recordLine, "price must be a number");
+        }
+        Set<Long> categoryIds = new LinkedHashSet<>();
+        String categories = field(record, "categoryIds");
+        if (categories != null) {
+            try {
+                for (String id : categories.split(";")) {
+                    if (!id.isBlank()) {
+                        categoryIds.add(Long.parseLong(id.trim()));
+                    }
+                }
+            } catch (NumberFormatException e) {
+                return BookImportRow.rejected(recordLine,
+                        "categoryIds must be a ;-separated list of ids");
+            }
+        }
+        CreateBookRequestDto book = CreateBookRequestDto.builder()
+                .title(field(record, "title"))
+                .author(field(record, "author"))
+                .isbn(field(record, "isbn"))
+                .price(price)
+                .description(field(record, "description"))
+                .coverImage(field(record, "coverImage"))
+                .build();
+        return BookImportRow.valid(recordLine, book, categoryIds);
+    }
+
+    private String field(List<String> record, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+            return null;
+        }
+        return record.get(index);
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c < 0) {
+            return null;
+        }
+        recordError = null;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c < 0) {
+                    recordError = "unterminated quoted field";
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    line++;
+                }
+                append(field, c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r' || c < 0) {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                if (c >= 0) {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                append(field, c);
+            }
+            c = reader.read();
+        }
+    }
+
+    private void append(StringBuilder field, int c) {
+        if (field.length() < MAX_FIELD_LENGTH) {
+            field.append((char) c);
+        } else {
+            recordError = "field is longer than " + MAX_FIELD_LENGTH + " characters";
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.bookstore.imports;
+
+import com.example.bookstore.dto.book.CreateBookRequestDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Reads one JSON book object per line, with the fields of the export. Lines longer than
+ * {@value #MAX_LINE_LENGTH} characters are skipped and reported instead of buffered.
+ */
+public class NdjsonBookImportReader implements BookImportReader {
+    private static final int MAX_LINE_LENGTH = 65_535;
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private final StringBuilder buffer = new StringBuilder();
+    private long line;
+    private boolean lineTooLong;
+
+    public NdjsonBookImportReader(InputStream in, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public BookImportRow next() throws IOException {
+        String text;
+        do {
+            text = readLine();
+            line++;
+            if (text == null) {
+                return null;
+            }
+        } while (text.isBlank() && !lineTooLong);
+        if (lineTooLong) {
+            return BookImportRow.rejected(line,
+                    "line is longer than " + MAX_LINE_LENGTH + " characters");
+        }
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            return BookImportRow.rejected(line, "malformed JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            return BookImportRow.rejected(line, "expected a JSON object");
+        }
+        JsonNode price = node.path("price");
+        if (!price.isMissingNode() && !price.isNull()
+                && !price.isNumber() && !isDecimal(price.asText())) {
+            return BookImportRow.rejected(line, "price must be a number");
+        }
+        Set<Long> categoryIds = new LinkedHashSet<>();
+        JsonNode categories = node.path("categoryIds");
+        if (!categories.isMissingNode() && !categories.isNull()) {
+            if (!categories.isArray()) {
+                return BookImportRow.rejected(line, "categoryIds must be a list of ids");
+            }
+            for (JsonNode id : categories) {
+                if (!id.isIntegralNumber() || !id.canConvertToLong()) {
+                    return BookImportRow.rejected(line, "categoryIds must be a list of ids");
+                }
+                categoryIds.add(id.asLong());
+            }
+        }
+        CreateBookRequestDto book = CreateBookRequestDto.builder()
+                .title(text(node, "title"))
+                .author(text(node, "author"))
+                .isbn(text(node, "isbn"))
+                .price(price.isMissingNode() || price.isNull()
+                        ? null : new BigDecimal(price.asText()))
+                .description(text(node, "description"))
+                .coverImage(text(node, "coverImage"))
+                .build();
+        return BookImportRow.valid(line, book, categoryIds);
+    }
+
+    private String readLine() throws IOException {
+        int c = reader.read();
+        if (c < 0) {
+            return null;
+        }
+        buffer.setLength(0);
+        lineTooLong = false;
+        while (c >= 0 && c != '\n') {
+            if (buffer.length() < MAX_LINE_LENGTH) {
+                buffer.append((char) c);
+            } else {
+                lineTooLong = true;
+            }
+            c = reader.read();
+        }
+        int end = buffer.length();
+        if (end > 0 && buffer.charAt(end - 1) == '\r') {
+            buffer.setLength(end - 1);
+        }
+        return buffer.toString();
+    }
+
+    private String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private boolean isDecimal(String value) {
+        try {
+            new BigDecimal(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -27,5 +27,8 @@ public interface BookMapper {
 
     BookDtoWithoutCategoryIds toDtoWithoutCategories(Book book);
 
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "authorId", ignore = true)
     Book toModel(CreateBookRequestDto requestDto);
 }
@@ -2,6 +2,7 @@ package com.example.bookstore.mapper;
 
 import com.example.bookstore.config.MapperConfig;
 import com.example.bookstore.dto.cart.CartItemDto;
+import com.example.bookstore.dto.cart.CartLineDto;
 import com.example.bookstore.model.CartItem;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -10,5 +11,10 @@ import org.mapstruct.Mapping;
 public interface CartItemMapper {
     @Mapping(target = "bookId", source = "book.id")
     @Mapping(target = "shoppingCartId", source = "shoppingCart.id")
+    @Mapping(target = "bookTitle", source = "book.title")
+    @Mapping(target = "price", source = "book.price")
     CartItemDto toDto(CartItem cartItem);
+
+    @Mapping(target = "id", source = "itemId")
+    CartItemDto toDto(CartLineDto cartLine);
 }
@@ -5,10 +5,13 @@ import com.example.bookstore.dto.category.CategoryDto;
 import com.example.bookstore.dto.category.CategoryRequestDto;
 import com.example.bookstore.model.Category;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(config = MapperConfig.class)
 public interface CategoryMapper {
     CategoryDto toDto(Category category);
 
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
     Category toModel(CategoryRequestDto requestDto);
 }
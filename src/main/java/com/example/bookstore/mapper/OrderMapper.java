@@ -15,6 +15,7 @@ import org.mapstruct.MappingTarget;
 public interface OrderMapper {
     @Mapping(target = "userId", source = "order.user.id")
     @Mapping(target = "orderItems", ignore = true)
+    @Mapping(target = "orderDate", dateFormat = "yyyy-MM-dd HH:mm:ss")
     OrderDto toDto(Order order, OrderItemMapper orderItemMapper);
 
     @AfterMapping
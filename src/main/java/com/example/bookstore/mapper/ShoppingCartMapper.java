@@ -2,8 +2,11 @@ package com.example.bookstore.mapper;
 
 import com.example.bookstore.config.MapperConfig;
 import com.example.bookstore.dto.cart.CartItemDto;
+import com.example.bookstore.dto.cart.CartLineDto;
 import com.example.bookstore.dto.cart.ShoppingCartDto;
 import com.example.bookstore.model.ShoppingCart;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.mapstruct.AfterMapping;
@@ -17,6 +20,23 @@ public interface ShoppingCartMapper {
     @Mapping(target = "cartItemIds", ignore = true)
     ShoppingCartDto toDto(ShoppingCart shoppingCart, CartItemMapper cartItemMapper);
 
+    /**
+     * Builds the cart from the rows of {@code findCartLinesByUserEmail}, which must not
+     * be empty.
+     */
+    default ShoppingCartDto toDto(List<CartLineDto> cartLines, CartItemMapper cartItemMapper) {
+        CartLineDto cart = cartLines.get(0);
+        ShoppingCartDto dto = new ShoppingCartDto();
+        dto.setId(cart.getShoppingCartId());
+        dto.setUserId(cart.getUserId());
+        dto.setVersion(cart.getVersion());
+        dto.setCartItemIds(cartLines.stream()
+                .filter(cartLine -> cartLine.getItemId() != null)
+                .map(cartItemMapper::toDto)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+        return dto;
+    }
+
     @AfterMapping
     default void setCartItemIds(@MappingTarget ShoppingCartDto dto,
                                 ShoppingCart shoppingCart, CartItemMapper cartItemMapper) {
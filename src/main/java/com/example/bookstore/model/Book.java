@@ -9,14 +9,18 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.annotations.Where;
 
 @Entity
@@ -25,7 +29,8 @@ import org.hibernate.annotations.Where;
 @AllArgsConstructor
 @Builder
 @Table(name = "books")
-@SQLDelete(sql = "UPDATE books SET is_deleted = true WHERE id = ?")
+@SQLDelete(sql = "UPDATE books SET is_deleted = true, version = version + 1 "
+        + "WHERE id = ? AND version = ?")
 @Where(clause = "is_deleted = false")
 public class Book {
     @Id
@@ -35,6 +40,8 @@ public class Book {
     private String title;
     @Column(nullable = false)
     private String author;
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
     @Column(nullable = false, unique = true)
     private String isbn;
     @Column(nullable = false)
@@ -42,6 +49,7 @@ public class Book {
     private String description;
     private String coverImage;
     @ManyToMany()
+    @BatchSize(size = 100)
     @JoinTable(
             name = "books_categories",
             joinColumns = @JoinColumn(name = "book_id"),
@@ -50,4 +58,8 @@ public class Book {
     private Set<Category> categories = new HashSet<>();
     @Column(columnDefinition = "BOOLEAN DEFAULT false")
     private boolean isDeleted;
+    @Version
+    private Long version;
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
 }
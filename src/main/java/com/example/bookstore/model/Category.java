@@ -6,14 +6,18 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.time.LocalDateTime;
 import lombok.Data;
 import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.annotations.Where;
 
 @Entity
 @Data
 @Table(name = "categories")
-@SQLDelete(sql = "UPDATE categories SET is_deleted = true WHERE id = ?")
+@SQLDelete(sql = "UPDATE categories SET is_deleted = true, version = version + 1 "
+        + "WHERE id = ? AND version = ?")
 @Where(clause = "is_deleted = false")
 public class Category {
     @Id
@@ -23,4 +27,8 @@ public class Category {
     private String description;
     @Column(columnDefinition = "BOOLEAN DEFAULT false")
     private boolean isDeleted;
+    @Version
+    private Long version;
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
 }
@@ -10,6 +10,7 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 import lombok.Data;
@@ -35,7 +36,7 @@ public class Order {
     @Column(nullable = false)
     private BigDecimal total;
     @Column(nullable = false)
-    private String orderDate;
+    private LocalDateTime orderDate;
     @Column(nullable = false)
     private String shippingAddress;
     @OneToMany(mappedBy = "order")
@@ -48,6 +49,25 @@ public class Order {
         PROCESSED,
         SHIPPED,
         DELIVERED,
-        CANCELED
+        CANCELED,
+        /**
+         * Accepted for asynchronous placement and not checked out yet. Only the checkout
+         * worker moves an order out of it, so admins can't skip the checkout. Declared last
+         * because statuses are stored by ordinal.
+         */
+        PENDING;
+
+        /**
+         * Orders move forward one step at a time and can be canceled until they ship.
+         * Delivered and canceled orders are final, pending ones belong to the worker.
+         */
+        public boolean canMoveTo(Status next) {
+            return switch (this) {
+                case NEW -> next == PROCESSED || next == CANCELED;
+                case PROCESSED -> next == SHIPPED || next == CANCELED;
+                case SHIPPED -> next == DELIVERED;
+                case DELIVERED, CANCELED, PENDING -> false;
+            };
+        }
     }
 }
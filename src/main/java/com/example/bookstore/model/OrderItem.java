@@ -38,6 +38,8 @@ public class OrderItem {
     private int quantity;
     @Column(nullable = false)
     private BigDecimal price;
+    @Column(nullable = false)
+    private int reservedQuantity;
     @Column(columnDefinition = "BOOLEAN DEFAULT false")
     private boolean isDeleted;
 }
@@ -29,6 +29,8 @@ public class ShoppingCart {
     private User user;
     @OneToMany(mappedBy = "shoppingCart")
     private Set<CartItem> cartItems = new HashSet<>();
+    @Column(insertable = false, updatable = false)
+    private Long version;
     @Column(columnDefinition = "BOOLEAN DEFAULT false")
     private boolean isDeleted;
 }
@@ -0,0 +1,53 @@
+package com.example.bookstore.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Appends events as NDJSON to {@code order.outbox.file} and forces them to disk before
+ * returning.
+ */
+@Component
+@ConditionalOnProperty(name = "order.outbox.sink", havingValue = "file", matchIfMissing = true)
+public class FileOrderEventSink implements OrderEventSink {
+    private final Path file;
+    private final ObjectWriter objectWriter;
+
+    public FileOrderEventSink(@Value("${order.outbox.file:order-events.ndjson}") Path file,
+                              ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectWriter = objectMapper.writerFor(OrderEvent.class);
+    }
+
+    @Override
+    public synchronized void publish(List<OrderEvent> events) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (OrderEvent event : events) {
+            lines.write(objectWriter.writeValueAsBytes(event));
+            lines.write('\n');
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.bookstore.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import java.time.LocalDateTime;
+
+/**
+ * An order lifecycle event as stored in the outbox. Ids grow with the order the events
+ * were written in, and consumers may see an event more than once.
+ */
+public record OrderEvent(Long id, Long orderId, String type, @JsonRawValue String payload,
+                         LocalDateTime createdAt) {
+    public static final String ORDER_PLACED = "ORDER_PLACED";
+    public static final String STATUS_CHANGED = "ORDER_STATUS_CHANGED";
+}
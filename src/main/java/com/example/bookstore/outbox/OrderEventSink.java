@@ -0,0 +1,12 @@
+package com.example.bookstore.outbox;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of the outbox relay. A batch counts as delivered once {@code publish}
+ * returns, so an implementation must not return before the events are durable.
+ */
+public interface OrderEventSink {
+    void publish(List<OrderEvent> events) throws IOException;
+}
@@ -0,0 +1,57 @@
+package com.example.bookstore.outbox;
+
+import com.example.bookstore.dto.order.OrderDto;
+import com.example.bookstore.model.Order;
+import com.example.bookstore.repository.OrderOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes order events into the outbox. Must be called inside the transaction that
+ * changes the order, after the order row has been written.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderOutbox {
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public void orderPlaced(OrderDto order) {
+        orderOutboxRepository.append(order.getId(), OrderEvent.ORDER_PLACED, toJson(order));
+    }
+
+    public void statusChanged(Long orderId, Order.Status from, Order.Status to) {
+        orderOutboxRepository.append(orderId, OrderEvent.STATUS_CHANGED,
+                statusChange(orderId, from, to));
+    }
+
+    /**
+     * Writes one status change event per order, keyed by order id to its old status.
+     */
+    public void statusChanged(Map<Long, Order.Status> from, Order.Status to) {
+        Map<Long, String> payloads = new LinkedHashMap<>();
+        from.forEach((orderId, status) -> payloads.put(orderId,
+                statusChange(orderId, status, to)));
+        orderOutboxRepository.appendAll(OrderEvent.STATUS_CHANGED, payloads);
+    }
+
+    private String statusChange(Long orderId, Order.Status from, Order.Status to) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", orderId);
+        payload.put("from", from);
+        payload.put("to", to);
+        return toJson(payload);
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't serialize " + value, e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.bookstore.repository;
+
+import com.example.bookstore.model.Author;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface AuthorRepository extends JpaRepository<Author, Long> {
+    @Query("SELECT a.id FROM Author a WHERE a.name = :name")
+    Optional<Long> findIdByName(String name);
+
+    /**
+     * Inserts the author unless the name exists and leaves the id of the new or existing
+     * row in {@code LAST_INSERT_ID()}, which a plain re-read could miss under a snapshot.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO authors (name) VALUES (:name) "
+            + "ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id)", nativeQuery = true)
+    void insertIfAbsent(String name);
+
+    @Query(value = "SELECT LAST_INSERT_ID()", nativeQuery = true)
+    Long lastInsertId();
+}
@@ -0,0 +1,99 @@
+package com.example.bookstore.repository;
+
+import com.example.bookstore.dto.book.BookDto;
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.conf.RuntimeProperty;
+import com.mysql.cj.jdbc.JdbcConnection;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reads the whole catalog through a forward-only server-side cursor, one book at a time.
+ * Cursor fetch is switched on for the export statement only; every other statement on
+ * the pooled connection keeps the driver defaults.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookExportRepository {
+    private static final String EXPORT_QUERY = "SELECT b.id, b.title, b.author, b.isbn, "
+            + "b.price, b.description, b.cover_image, c.id AS category_id "
+            + "FROM books b "
+            + "LEFT JOIN books_categories bc ON bc.book_id = b.id "
+            + "LEFT JOIN categories c ON c.id = bc.category_id AND c.is_deleted = FALSE "
+            + "WHERE b.is_deleted = FALSE "
+            + "ORDER BY b.id";
+    private final JdbcTemplate jdbcTemplate;
+    @Value("${book.export.fetch-size:1000}")
+    private int fetchSize;
+
+    public void streamAll(Consumer<BookDto> consumer) {
+        BookRowCallbackHandler handler = new BookRowCallbackHandler(consumer);
+        jdbcTemplate.query(this::prepareCursor, handler);
+        handler.finish();
+    }
+
+    /**
+     * The driver reads {@code useCursorFetch} when a server-side statement is created, so
+     * the property is set only around preparing this one and restored right after.
+     */
+    private PreparedStatement prepareCursor(Connection connection) throws SQLException {
+        JdbcConnection mysqlConnection = connection.unwrap(JdbcConnection.class);
+        RuntimeProperty<Boolean> useCursorFetch = mysqlConnection.getPropertySet()
+                .getBooleanProperty(PropertyKey.useCursorFetch);
+        boolean previous = useCursorFetch.getValue();
+        useCursorFetch.setValue(true);
+        try {
+            PreparedStatement statement = mysqlConnection.serverPrepareStatement(EXPORT_QUERY,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        } finally {
+            useCursorFetch.setValue(previous);
+        }
+    }
+
+    private static final class BookRowCallbackHandler implements RowCallbackHandler {
+        private final Consumer<BookDto> consumer;
+        private BookDto current;
+
+        private BookRowCallbackHandler(Consumer<BookDto> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (current == null || current.getId() != id) {
+                finish();
+                current = BookDto.builder()
+                        .id(id)
+                        .title(rs.getString("title"))
+                        .author(rs.getString("author"))
+                        .isbn(rs.getString("isbn"))
+                        .price(rs.getBigDecimal("price"))
+                        .description(rs.getString("description"))
+                        .coverImage(rs.getString("cover_image"))
+                        .build();
+            }
+            long categoryId = rs.getLong("category_id");
+            if (!rs.wasNull()) {
+                current.getCategoryIds().add(categoryId);
+            }
+        }
+
+        private void finish() {
+            if (current != null) {
+                consumer.accept(current);
+                current = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.bookstore.repository;
+
+import com.example.bookstore.dto.book.CreateBookRequestDto;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC batch writes for the bulk import. Needs {@code rewriteBatchedStatements=true}
+ * on the MySQL connection so a batch goes out as multi-row inserts.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookImportRepository {
+    private static final String INSERT_AUTHOR =
+            "INSERT INTO authors (name) VALUES (?) ON DUPLICATE KEY UPDATE id = id";
+    private static final String INSERT_BOOK = "INSERT INTO books "
+            + "(title, author, author_id, isbn, price, description, cover_image, is_deleted) "
+            + "VALUES (?, ?, (SELECT id FROM authors WHERE name = ?), ?, ?, ?, ?, FALSE)";
+    private static final String INSERT_BOOK_CATEGORY =
+            "INSERT INTO books_categories (book_id, category_id) VALUES (?, ?)";
+    private static final String SELECT_IDS_BY_ISBN =
+            "SELECT id, isbn FROM books WHERE isbn IN (:isbns)";
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public Set<String> findExistingIsbns(Collection<String> isbns) {
+        if (isbns.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT isbn FROM books WHERE isbn IN (:isbns)",
+                Map.of("isbns", isbns), String.class));
+    }
+
+    public void insertAuthors(Collection<String> names) {
+        jdbcTemplate.batchUpdate(INSERT_AUTHOR, names.stream()
+                .map(name -> new Object[]{name})
+                .toList());
+    }
+
+    /**
+     * Inserts the books and returns their ids keyed by isbn. The ids are read back by isbn
+     * because the generated keys of a rewritten multi-row insert are derived from the first
+     * id and are only right when the server hands out consecutive ids.
+     */
+    public Map<String, Long> insertBooks(List<CreateBookRequestDto> books) {
+        jdbcTemplate.batchUpdate(INSERT_BOOK, books.stream()
+                .map(book -> new Object[]{book.getTitle(), book.getAuthor(), book.getAuthor(),
+                        book.getIsbn(), book.getPrice(), book.getDescription(),
+                        book.getCoverImage()})
+                .toList());
+        Map<String, Long> ids = new HashMap<>();
+        namedParameterJdbcTemplate.query(SELECT_IDS_BY_ISBN,
+                Map.of("isbns", books.stream().map(CreateBookRequestDto::getIsbn).toList()),
+                (RowCallbackHandler) rs -> ids.put(rs.getString("isbn"), rs.getLong("id")));
+        return ids;
+    }
+
+    public void insertBookCategories(List<Object[]> bookCategoryIds) {
+        if (!bookCategoryIds.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_BOOK_CATEGORY, bookCategoryIds);
+        }
+    }
+}
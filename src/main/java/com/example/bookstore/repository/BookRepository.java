@@ -1,12 +1,14 @@
 package com.example.bookstore.repository;
 
 import com.example.bookstore.model.Book;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
@@ -15,6 +17,12 @@ public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificat
 
     List<Book> findAllByCategoriesId(Long categoryId);
 
-    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.categories")
-    List<Book> findAllWithCategories();
+    @Query("SELECT b.id FROM Book b WHERE b.id IN :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "UPDATE books SET version = version + 1 WHERE id IN "
+            + "(SELECT book_id FROM books_categories WHERE category_id = :categoryId)",
+            nativeQuery = true)
+    void incrementVersionsByCategoryId(Long categoryId);
 }
@@ -0,0 +1,75 @@
+package com.example.bookstore.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC access to the striped stock counters of books. Every write is a conditional
+ * update of one (book_id, stripe) row, so it only waits for writers of the same stripe.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookStockRepository {
+    private static final String TAKE = "UPDATE book_stock_stripes "
+            + "SET quantity = quantity - ? WHERE book_id = ? AND stripe = ? AND quantity >= ?";
+    private static final String PUT_BACK = "UPDATE book_stock_stripes "
+            + "SET quantity = quantity + ? WHERE book_id = ? AND stripe = ?";
+    private static final String LOCK_STRIPES = "SELECT stripe, quantity FROM book_stock_stripes "
+            + "WHERE book_id = ? ORDER BY stripe FOR UPDATE";
+    private static final String SUM = "SELECT SUM(quantity) FROM book_stock_stripes "
+            + "WHERE book_id = ?";
+    private static final String DELETE_STRIPES = "DELETE FROM book_stock_stripes "
+            + "WHERE book_id = ?";
+    private static final String INSERT_STRIPE = "INSERT INTO book_stock_stripes "
+            + "(book_id, stripe, quantity) VALUES (?, ?, ?)";
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Takes the quantity from one stripe if that stripe alone holds enough.
+     */
+    public boolean take(Long bookId, int stripe, int quantity) {
+        return jdbcTemplate.update(TAKE, quantity, bookId, stripe, quantity) > 0;
+    }
+
+    /**
+     * Returns the quantity to one stripe. Returns false when the book is not tracked.
+     */
+    public boolean putBack(Long bookId, int stripe, int quantity) {
+        return jdbcTemplate.update(PUT_BACK, quantity, bookId, stripe) > 0;
+    }
+
+    /**
+     * Locks every stripe of the book in stripe order and returns their quantities.
+     * An empty map means the book is not stock-tracked.
+     */
+    public Map<Integer, Integer> lockStripes(Long bookId) {
+        Map<Integer, Integer> stripes = new LinkedHashMap<>();
+        jdbcTemplate.query(LOCK_STRIPES,
+                rs -> {
+                    stripes.put(rs.getInt(1), rs.getInt(2));
+                },
+                bookId);
+        return stripes;
+    }
+
+    /**
+     * Returns the total stock of the book, or null when it is not stock-tracked.
+     */
+    public Integer sum(Long bookId) {
+        return jdbcTemplate.queryForObject(SUM, Integer.class, bookId);
+    }
+
+    public void replace(Long bookId, int[] quantities) {
+        jdbcTemplate.update(DELETE_STRIPES, bookId);
+        List<Object[]> rows = new ArrayList<>(quantities.length);
+        for (int stripe = 0; stripe < quantities.length; stripe++) {
+            rows.add(new Object[]{bookId, stripe, quantities[stripe]});
+        }
+        jdbcTemplate.batchUpdate(INSERT_STRIPE, rows);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.bookstore.repository;
+
+import java.util.Collection;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC batch writes for applying many cart line changes at once. Like the single line
+ * upsert in {@link CartItemRepository}, they rely on the unique
+ * (shopping_cart_id, book_id) key.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CartItemBatchRepository {
+    private static final String ADD_QUANTITY = "INSERT INTO cart_items "
+            + "(shopping_cart_id, book_id, quantity) VALUES (?, ?, ?) AS added "
+            + "ON DUPLICATE KEY UPDATE "
+            + "quantity = IF(cart_items.is_deleted, added.quantity, "
+            + "cart_items.quantity + added.quantity), "
+            + "is_deleted = false";
+    private static final String SET_QUANTITY = "INSERT INTO cart_items "
+            + "(shopping_cart_id, book_id, quantity) VALUES (?, ?, ?) AS added "
+            + "ON DUPLICATE KEY UPDATE quantity = added.quantity, is_deleted = false";
+    private static final String REMOVE_BOOKS = "UPDATE cart_items SET is_deleted = true "
+            + "WHERE shopping_cart_id = :shoppingCartId AND book_id IN (:bookIds)";
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public void addQuantities(Long shoppingCartId, Map<Long, Integer> quantitiesByBookId) {
+        upsert(ADD_QUANTITY, shoppingCartId, quantitiesByBookId);
+    }
+
+    public void setQuantities(Long shoppingCartId, Map<Long, Integer> quantitiesByBookId) {
+        upsert(SET_QUANTITY, shoppingCartId, quantitiesByBookId);
+    }
+
+    public void removeBooks(Long shoppingCartId, Collection<Long> bookIds) {
+        if (!bookIds.isEmpty()) {
+            namedParameterJdbcTemplate.update(REMOVE_BOOKS,
+                    Map.of("shoppingCartId", shoppingCartId, "bookIds", bookIds));
+        }
+    }
+
+    private void upsert(String sql, Long shoppingCartId, Map<Long, Integer> quantitiesByBookId) {
+        if (!quantitiesByBookId.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, quantitiesByBookId.entrySet().stream()
+                    .map(line -> new Object[]{shoppingCartId, line.getKey(), line.getValue()})
+                    .toList());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.bookstore.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC access for the cart item purge job. Candidates are found by id keyset outside any
+ * transaction; each batch is then locked with its predicate re-checked, so a line revived
+ * or touched in between is left alone.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CartItemPurgeRepository {
+    private static final String FIND_DELETED = "SELECT id FROM cart_items "
+            + "WHERE is_deleted = true AND id > :afterId ORDER BY id LIMIT :limit";
+    private static final String LOCK_DELETED = "SELECT id FROM cart_items "
+            + "WHERE id IN (:ids) AND is_deleted = true FOR UPDATE";
+    private static final String FIND_ABANDONED = "SELECT ci.id FROM cart_items ci "
+            + "JOIN shopping_carts sc ON sc.id = ci.shopping_cart_id "
+            + "WHERE sc.updated_at < :cutoff AND ci.is_deleted = false AND ci.id > :afterId "
+            + "ORDER BY ci.id LIMIT :limit";
+    private static final String LOCK_ABANDONED = "SELECT ci.id FROM cart_items ci "
+            + "JOIN shopping_carts sc ON sc.id = ci.shopping_cart_id "
+            + "WHERE ci.id IN (:ids) AND sc.updated_at < :cutoff AND ci.is_deleted = false "
+            + "FOR UPDATE";
+    private static final String ARCHIVE = "INSERT INTO cart_items_archive "
+            + "(id, shopping_cart_id, book_id, quantity, is_deleted) "
+            + "SELECT id, shopping_cart_id, book_id, quantity, COALESCE(is_deleted, false) "
+            + "FROM cart_items WHERE id IN (:ids)";
+    private static final String INCREMENT_CART_VERSIONS = "UPDATE shopping_carts "
+            + "SET version = version + 1 WHERE id IN "
+            + "(SELECT shopping_cart_id FROM cart_items WHERE id IN (:ids))";
+    private static final String DELETE = "DELETE FROM cart_items WHERE id IN (:ids)";
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public List<Long> findDeletedIds(long afterId, int limit) {
+        return namedParameterJdbcTemplate.queryForList(FIND_DELETED,
+                Map.of("afterId", afterId, "limit", limit), Long.class);
+    }
+
+    public List<Long> lockDeleted(Collection<Long> ids) {
+        return namedParameterJdbcTemplate.queryForList(LOCK_DELETED, Map.of("ids", ids),
+                Long.class);
+    }
+
+    public List<Long> findAbandonedIds(LocalDateTime cutoff, long afterId, int limit) {
+        return namedParameterJdbcTemplate.queryForList(FIND_ABANDONED,
+                Map.of("cutoff", cutoff, "afterId", afterId, "limit", limit), Long.class);
+    }
+
+    public List<Long> lockAbandoned(Collection<Long> ids, LocalDateTime cutoff) {
+        return namedParameterJdbcTemplate.queryForList(LOCK_ABANDONED,
+                Map.of("ids", ids, "cutoff", cutoff), Long.class);
+    }
+
+    public void archive(Collection<Long> ids) {
+        namedParameterJdbcTemplate.update(ARCHIVE, Map.of("ids", ids));
+    }
+
+    /**
+     * Bumps the version of the carts the given lines belong to, so clients holding
+     * an abandoned cart's ETag see it has changed.
+     */
+    public void incrementCartVersions(Collection<Long> ids) {
+        namedParameterJdbcTemplate.update(INCREMENT_CART_VERSIONS, Map.of("ids", ids));
+    }
+
+    public int delete(Collection<Long> ids) {
+        return namedParameterJdbcTemplate.update(DELETE, Map.of("ids", ids));
+    }
+}
@@ -1,7 +1,68 @@
 package com.example.bookstore.repository;
 
+import com.example.bookstore.dto.cart.CartItemKey;
 import com.example.bookstore.model.CartItem;
+import java.util.Collection;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
+    /**
+     * Adds the quantity to the cart line of the book in one statement, creating the line
+     * if there is none. A soft-deleted line is revived with just the added quantity.
+     * Concurrent adds of the same book are serialized on the unique
+     * (shopping_cart_id, book_id) key, so none of them is lost.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO cart_items (shopping_cart_id, book_id, quantity) "
+            + "VALUES (:shoppingCartId, :bookId, :quantity) AS added "
+            + "ON DUPLICATE KEY UPDATE "
+            + "quantity = IF(cart_items.is_deleted, added.quantity, "
+            + "cart_items.quantity + added.quantity), "
+            + "is_deleted = false",
+            nativeQuery = true)
+    void addQuantity(Long shoppingCartId, Long bookId, int quantity);
+
+    /**
+     * Sets the quantity of a live line in the cart of the given user and bumps the cart
+     * version, in one statement. Returns 0 when the line does not exist or belongs
+     * to another user.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE cart_items ci "
+            + "JOIN shopping_carts sc ON sc.id = ci.shopping_cart_id AND sc.is_deleted = false "
+            + "JOIN users u ON u.id = sc.user_id "
+            + "SET ci.quantity = :quantity, sc.version = sc.version + 1 "
+            + "WHERE ci.id = :itemId AND ci.is_deleted = false AND u.email = :email",
+            nativeQuery = true)
+    int updateQuantityOfUserItem(Long itemId, String email, int quantity);
+
+    /**
+     * Soft-deletes a live line in the cart of the given user and bumps the cart version,
+     * in one statement. Returns 0 when the line does not exist or belongs to another user.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE cart_items ci "
+            + "JOIN shopping_carts sc ON sc.id = ci.shopping_cart_id AND sc.is_deleted = false "
+            + "JOIN users u ON u.id = sc.user_id "
+            + "SET ci.is_deleted = true, sc.version = sc.version + 1 "
+            + "WHERE ci.id = :itemId AND ci.is_deleted = false AND u.email = :email",
+            nativeQuery = true)
+    int deleteUserItem(Long itemId, String email);
+
+    @Query(value = "SELECT ci.shopping_cart_id AS shoppingCartId, ci.book_id AS bookId, "
+            + "sc.version AS version "
+            + "FROM cart_items ci JOIN shopping_carts sc ON sc.id = ci.shopping_cart_id "
+            + "WHERE ci.id = :itemId",
+            nativeQuery = true)
+    Optional<CartItemKey> findKeyById(Long itemId);
+
+    boolean existsByShoppingCartUserEmail(String email);
+
+    @Modifying
+    @Query(value = "UPDATE cart_items SET is_deleted = true WHERE id IN (:ids)",
+            nativeQuery = true)
+    void softDeleteAllById(Collection<Long> ids);
 }
@@ -1,10 +1,17 @@
 package com.example.bookstore.repository;
 
+import com.example.bookstore.dto.version.EntityVersionDto;
 import com.example.bookstore.model.Category;
+import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     Page<Category> findAll(Pageable pageable);
+
+    @Query("SELECT new com.example.bookstore.dto.version.EntityVersionDto(c.version, c.updatedAt) "
+            + "FROM Category c WHERE c.id = :id")
+    Optional<EntityVersionDto> findVersionById(Long id);
 }
@@ -0,0 +1,57 @@
+package com.example.bookstore.repository;
+
+import com.example.bookstore.dto.order.StoredOrderResponse;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Idempotency keys of placed orders, scoped per user. A key is claimed by inserting its
+ * row in the checkout transaction: a concurrent claim of the same key blocks on the
+ * primary key until that transaction ends, then either finds the stored response or,
+ * after a rollback, claims the key itself.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderIdempotencyKeyRepository {
+    private static final String CLAIM = "INSERT IGNORE INTO order_idempotency_keys "
+            + "(user_id, key_hash, request_hash) SELECT id, ?, ? FROM users WHERE email = ?";
+    private static final String FIND_FOR_SHARE = "SELECT k.request_hash, k.response "
+            + "FROM order_idempotency_keys k JOIN users u ON u.id = k.user_id "
+            + "WHERE u.email = ? AND k.key_hash = ? FOR SHARE";
+    private static final String COMPLETE = "UPDATE order_idempotency_keys k "
+            + "JOIN users u ON u.id = k.user_id SET k.order_id = ?, k.response = ? "
+            + "WHERE u.email = ? AND k.key_hash = ?";
+    private static final String DELETE_CREATED_BEFORE =
+            "DELETE FROM order_idempotency_keys WHERE created_at < ? LIMIT ?";
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns false when the key is already taken, or when there is no such user.
+     */
+    public boolean claim(String email, String keyHash, String requestHash) {
+        return jdbcTemplate.update(CLAIM, keyHash, requestHash, email) > 0;
+    }
+
+    /**
+     * Reads the latest committed row, not the transaction's snapshot, since the row
+     * may have been committed by the claim this transaction waited for.
+     */
+    public Optional<StoredOrderResponse> findForShare(String email, String keyHash) {
+        List<StoredOrderResponse> rows = jdbcTemplate.query(FIND_FOR_SHARE,
+                (rs, rowNum) -> new StoredOrderResponse(rs.getString(1), rs.getString(2)),
+                email, keyHash);
+        return rows.stream().findFirst();
+    }
+
+    public void complete(String email, String keyHash, Long orderId, String response) {
+        jdbcTemplate.update(COMPLETE, orderId, response, email, keyHash);
+    }
+
+    public int deleteCreatedBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update(DELETE_CREATED_BEFORE, cutoff, limit);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.bookstore.repository;
+
+import com.example.bookstore.dto.cart.CartLineDto;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC batch insert of the lines of a new order. Like {@link BookImportRepository} it
+ * relies on {@code rewriteBatchedStatements=true} to send one multi-row insert.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderItemBatchRepository {
+    private static final String INSERT_ORDER_ITEM = "INSERT INTO order_items "
+            + "(order_id, book_id, quantity, price, reserved_quantity, is_deleted) "
+            + "VALUES (?, ?, ?, ?, ?, FALSE)";
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts one order item per cart line at the line's current book price and returns
+     * the generated ids in line order. Lines of the reserved books record their quantity
+     * as reserved, the others reserve nothing.
+     */
+    public List<Long> insertOrderItems(Long orderId, List<CartLineDto> lines,
+                                       Set<Long> reservedBookIds) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_ORDER_ITEM,
+                    Statement.RETURN_GENERATED_KEYS)) {
+                for (CartLineDto line : lines) {
+                    statement.setLong(1, orderId);
+                    statement.setLong(2, line.getBookId());
+                    statement.setInt(3, line.getQuantity());
+                    statement.setBigDecimal(4, line.getPrice());
+                    statement.setInt(5, reservedBookIds.contains(line.getBookId())
+                            ? line.getQuantity() : 0);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                List<Long> ids = new ArrayList<>(lines.size());
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+}
@@ -1,7 +1,31 @@
 package com.example.bookstore.repository;
 
+import com.example.bookstore.dto.order.OrderItemDto;
 import com.example.bookstore.model.OrderItem;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+    /**
+     * One item of one of the user's orders, read by primary key without loading the
+     * order, its other items or the book.
+     */
+    @Query("SELECT new com.example.bookstore.dto.order.OrderItemDto("
+            + "oi.id, oi.book.id, oi.quantity) "
+            + "FROM OrderItem oi "
+            + "WHERE oi.id = :itemId AND oi.order.id = :orderId "
+            + "AND oi.order.user.id = :userId")
+    Optional<OrderItemDto> findOrderItem(Long itemId, Long orderId, Long userId);
+
+    /**
+     * A page of the items of one of the user's orders, paged in the database.
+     */
+    @Query("SELECT new com.example.bookstore.dto.order.OrderItemDto("
+            + "oi.id, oi.book.id, oi.quantity) "
+            + "FROM OrderItem oi "
+            + "WHERE oi.order.id = :orderId AND oi.order.user.id = :userId")
+    List<OrderItemDto> findOrderItems(Long orderId, Long userId, Pageable pageable);
 }
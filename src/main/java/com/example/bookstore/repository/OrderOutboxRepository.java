@@ -0,0 +1,56 @@
+package com.example.bookstore.repository;
+
+import com.example.bookstore.outbox.OrderEvent;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC access to the order outbox. Events are appended after the order row is written,
+ * so two events of one order get ids in the order their transactions commit. The relay
+ * locks the oldest events, and a second relay waits on them rather than delivering
+ * newer events first.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderOutboxRepository {
+    private static final String APPEND = "INSERT INTO order_outbox "
+            + "(order_id, event_type, payload) VALUES (:orderId, :type, :payload)";
+    private static final String LOCK_OLDEST = "SELECT id, order_id, event_type, payload, "
+            + "created_at FROM order_outbox ORDER BY id LIMIT :limit FOR UPDATE";
+    private static final String DELETE = "DELETE FROM order_outbox WHERE id IN (:ids)";
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public void append(Long orderId, String type, String payload) {
+        namedParameterJdbcTemplate.update(APPEND,
+                Map.of("orderId", orderId, "type", type, "payload", payload));
+    }
+
+    /**
+     * Appends events of one type as one JDBC batch; payloads are keyed by order id.
+     */
+    public void appendAll(String type, Map<Long, String> payloads) {
+        SqlParameterSource[] batch = payloads.entrySet().stream()
+                .map(payload -> new MapSqlParameterSource("orderId", payload.getKey())
+                        .addValue("type", type)
+                        .addValue("payload", payload.getValue()))
+                .toArray(SqlParameterSource[]::new);
+        namedParameterJdbcTemplate.batchUpdate(APPEND, batch);
+    }
+
+    public List<OrderEvent> lockOldest(int limit) {
+        return namedParameterJdbcTemplate.query(LOCK_OLDEST, Map.of("limit", limit),
+                (rs, rowNum) -> new OrderEvent(rs.getLong("id"), rs.getLong("order_id"),
+                        rs.getString("event_type"), rs.getString("payload"),
+                        rs.getTimestamp("created_at").toLocalDateTime()));
+    }
+
+    public int delete(Collection<Long> ids) {
+        return namedParameterJdbcTemplate.update(DELETE, Map.of("ids", ids));
+    }
+}
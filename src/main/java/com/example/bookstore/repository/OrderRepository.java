@@ -1,13 +1,49 @@
 package com.example.bookstore.repository;
 
+import com.example.bookstore.dto.order.OrderSummaryDto;
 import com.example.bookstore.model.Order;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    String SUMMARY = "SELECT new com.example.bookstore.dto.order.OrderSummaryDto("
+            + "o.id, o.orderDate, o.status, o.total, "
+            + "(SELECT COUNT(oi.id) FROM OrderItem oi WHERE oi.order = o)) "
+            + "FROM Order o WHERE o.user.email = :email ";
+    String NEWEST_FIRST = "ORDER BY o.orderDate DESC, o.id DESC";
+
     Page<Order> findAllByUserId(Long id, Pageable pageable);
 
+    /**
+     * Orders of the user placed at or after {@code from} and before {@code to}, a range
+     * scan of the (user_id, order_date) index.
+     */
+    @Query("SELECT o FROM Order o WHERE o.user.id = :userId "
+            + "AND o.orderDate >= :from AND o.orderDate < :to")
+    Page<Order> findAllByUserIdInDateRange(Long userId, LocalDateTime from, LocalDateTime to,
+                                           Pageable pageable);
+
     Optional<Order> findByIdAndUserId(Long orderId, Long userId);
+
+    boolean existsByIdAndUserId(Long orderId, Long userId);
+
+    /**
+     * First page of the user's order summaries, newest first. The item count is a
+     * correlated subquery, so the orders are read in index order and stop at the limit.
+     */
+    @Query(SUMMARY + NEWEST_FIRST)
+    List<OrderSummaryDto> findSummaries(String email, Pageable pageable);
+
+    /**
+     * Next page of order summaries, after the (orderDate, id) of the last one seen.
+     */
+    @Query(SUMMARY + "AND (o.orderDate < :orderDate "
+            + "OR (o.orderDate = :orderDate AND o.id < :id)) " + NEWEST_FIRST)
+    List<OrderSummaryDto> findSummariesAfter(String email, LocalDateTime orderDate, Long id,
+                                             Pageable pageable);
 }
@@ -0,0 +1,79 @@
+package com.example.bookstore.repository;
+
+import com.example.bookstore.model.Order;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set-based status changes for the admin bulk endpoint. Orders are locked first so the
+ * status each one is moved from is known, then all of them change in one UPDATE.
+ * Statuses are stored by ordinal.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderStatusRepository {
+    private static final String LOCK_BY_IDS = "SELECT id, status FROM orders "
+            + "WHERE id IN (:ids) AND is_deleted = false ORDER BY id FOR UPDATE";
+    private static final String LOCK_BY_STATUS = "SELECT id, status FROM orders "
+            + "WHERE status = :status AND is_deleted = false ORDER BY id LIMIT :limit "
+            + "FOR UPDATE";
+    private static final String LOCK_BY_STATUS_AND_USER = "SELECT id, status FROM orders "
+            + "WHERE status = :status AND user_id = :userId AND is_deleted = false "
+            + "ORDER BY id LIMIT :limit FOR UPDATE";
+    private static final String UPDATE_STATUS =
+            "UPDATE orders SET status = :status WHERE id IN (:ids)";
+    private static final String SUM_QUANTITIES = "SELECT book_id, SUM(reserved_quantity) "
+            + "FROM order_items WHERE order_id IN (:ids) AND reserved_quantity > 0 "
+            + "AND is_deleted = false GROUP BY book_id";
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Returns the current status of each of the orders that exist, in id order.
+     */
+    public Map<Long, Order.Status> lockByIds(Collection<Long> ids) {
+        return lock(LOCK_BY_IDS, new MapSqlParameterSource("ids", ids));
+    }
+
+    /**
+     * Locks up to {@code limit} orders in the given status, oldest id first, optionally
+     * only those of one user.
+     */
+    public Map<Long, Order.Status> lockByStatus(Order.Status status, Long userId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("status", status.ordinal())
+                .addValue("limit", limit);
+        if (userId == null) {
+            return lock(LOCK_BY_STATUS, params);
+        }
+        return lock(LOCK_BY_STATUS_AND_USER, params.addValue("userId", userId));
+    }
+
+    public int updateStatus(Collection<Long> ids, Order.Status status) {
+        return namedParameterJdbcTemplate.update(UPDATE_STATUS,
+                Map.of("ids", ids, "status", status.ordinal()));
+    }
+
+    /**
+     * Units per book reserved from stock by the items of the given orders.
+     */
+    public Map<Long, Integer> sumQuantities(Collection<Long> orderIds) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        namedParameterJdbcTemplate.query(SUM_QUANTITIES, Map.of("ids", orderIds),
+                (RowCallbackHandler) rs -> quantities.put(rs.getLong(1), rs.getInt(2)));
+        return quantities;
+    }
+
+    private Map<Long, Order.Status> lock(String sql, MapSqlParameterSource params) {
+        Order.Status[] statuses = Order.Status.values();
+        Map<Long, Order.Status> locked = new LinkedHashMap<>();
+        namedParameterJdbcTemplate.query(sql, params,
+                (RowCallbackHandler) rs -> locked.put(rs.getLong(1), statuses[rs.getInt(2)]));
+        return locked;
+    }
+}
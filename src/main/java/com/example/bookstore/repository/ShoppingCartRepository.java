@@ -1,9 +1,66 @@
 package com.example.bookstore.repository;
 
+import com.example.bookstore.dto.cart.CartLineDto;
 import com.example.bookstore.model.ShoppingCart;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 public interface ShoppingCartRepository extends JpaRepository<ShoppingCart, Long> {
     Optional<ShoppingCart> findByUserId(Long userId);
+
+    @Query("SELECT new com.example.bookstore.dto.cart.CartLineDto(sc.id, u.id, sc.version, "
+            + "ci.id, b.id, b.title, b.price, ci.quantity) "
+            + "FROM ShoppingCart sc JOIN sc.user u "
+            + "LEFT JOIN CartItem ci ON ci.shoppingCart = sc AND ci.isDeleted = false "
+            + "LEFT JOIN ci.book b "
+            + "WHERE u.email = :email "
+            + "ORDER BY ci.id")
+    List<CartLineDto> findCartLinesByUserEmail(String email);
+
+    @Query("SELECT new com.example.bookstore.dto.cart.CartLineDto(sc.id, sc.user.id, "
+            + "sc.version, ci.id, b.id, b.title, b.price, ci.quantity) "
+            + "FROM ShoppingCart sc "
+            + "JOIN CartItem ci ON ci.shoppingCart = sc AND ci.isDeleted = false "
+            + "JOIN ci.book b "
+            + "WHERE sc.id = :shoppingCartId AND b.id IN :bookIds")
+    List<CartLineDto> findCartLines(Long shoppingCartId, Collection<Long> bookIds);
+
+    @Query("SELECT new com.example.bookstore.dto.cart.CartLineDto(sc.id, sc.user.id, "
+            + "sc.version, ci.id, b.id, b.title, b.price, ci.quantity) "
+            + "FROM ShoppingCart sc "
+            + "JOIN CartItem ci ON ci.shoppingCart = sc AND ci.isDeleted = false "
+            + "JOIN ci.book b "
+            + "WHERE ci.id = :itemId")
+    Optional<CartLineDto> findCartLineByItemId(Long itemId);
+
+    @Query("SELECT sc.version FROM ShoppingCart sc WHERE sc.user.email = :email")
+    Optional<Long> findVersionByUserEmail(String email);
+
+    @Query("SELECT sc.version FROM ShoppingCart sc WHERE sc.id = :id")
+    Long findVersionById(Long id);
+
+    /**
+     * Bumps the cart version. Also locks the cart row, so callers bump it before writing
+     * any line: concurrent mutations of one cart are then serialized and each gets its
+     * own version.
+     */
+    @Modifying
+    @Query(value = "UPDATE shopping_carts SET version = version + 1 WHERE id = :id",
+            nativeQuery = true)
+    void incrementVersion(Long id);
+
+    /**
+     * Bumps the version of the user's cart. Checkout calls it first so the cart row stays
+     * locked until commit and a second checkout of the same cart waits and sees it empty.
+     */
+    @Modifying
+    @Query(value = "UPDATE shopping_carts sc JOIN users u ON u.id = sc.user_id "
+            + "SET sc.version = sc.version + 1 "
+            + "WHERE u.email = :email AND sc.is_deleted = false",
+            nativeQuery = true)
+    int incrementVersionByUserEmail(String email);
 }
@@ -0,0 +1,82 @@
+package com.example.bookstore.repository.keyset;
+
+import com.example.bookstore.exception.InvalidCursorException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Opaque cursor token for keyset scrolling. The token only carries the last seen
+ * sort key values, so every request of one scroll must use the same sort.
+ */
+@Component
+@RequiredArgsConstructor
+public class KeysetCursorCodec {
+    private static final String ID = "id";
+    private static final TypeReference<LinkedHashMap<String, String>> KEYS_TYPE =
+            new TypeReference<>() {};
+    private final ObjectMapper objectMapper;
+
+    public String encode(ScrollPosition position) {
+        Map<String, String> keys = new LinkedHashMap<>();
+        ((KeysetScrollPosition) position).getKeys()
+                .forEach((key, value) -> keys.put(key, String.valueOf(value)));
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(objectMapper.writeValueAsBytes(keys));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't encode cursor for keys " + keys, e);
+        }
+    }
+
+    public KeysetScrollPosition decode(String cursor, Sort sort,
+                                       Map<String, Class<?>> keyTypes) {
+        if (!StringUtils.hasText(cursor)) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, String> keys;
+        try {
+            keys = objectMapper.readValue(Base64.getUrlDecoder().decode(cursor), KEYS_TYPE);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidCursorException("Malformed cursor: " + cursor, e);
+        }
+        Set<String> expectedKeys = new HashSet<>();
+        sort.forEach(order -> expectedKeys.add(order.getProperty()));
+        expectedKeys.add(ID);
+        if (!expectedKeys.equals(keys.keySet())) {
+            throw new InvalidCursorException(
+                    "Cursor doesn't match the requested sort " + sort);
+        }
+        Map<String, Object> typedKeys = new LinkedHashMap<>();
+        try {
+            keys.forEach((key, value) -> typedKeys.put(key,
+                    convert(value, keyTypes.get(key))));
+        } catch (ConversionException | DateTimeParseException e) {
+            throw new InvalidCursorException("Malformed cursor: " + cursor, e);
+        }
+        return ScrollPosition.forward(typedKeys);
+    }
+
+    private static Object convert(String value, Class<?> type) {
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(value);
+        }
+        return DefaultConversionService.getSharedInstance().convert(value, type);
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.bookstore.repository.specifications.provider;
 
+import com.example.bookstore.model.Author;
 import com.example.bookstore.model.Book;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import java.util.Arrays;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
@@ -8,8 +11,12 @@ import org.springframework.stereotype.Component;
 @Component
 public class AuthorSpecificationProvider {
     public static Specification<Book> getSpecification(String[] authors) {
-        String author = "author";
-        return (root, query, criteriaBuilder) ->
-             root.get(author).in(Arrays.stream(authors).toArray());
+        return (root, query, criteriaBuilder) -> {
+            Subquery<Long> authorIds = query.subquery(Long.class);
+            Root<Author> author = authorIds.from(Author.class);
+            authorIds.select(author.get("id"))
+                    .where(author.get("name").in(Arrays.asList(authors)));
+            return root.get("authorId").in(authorIds);
+        };
     }
 }
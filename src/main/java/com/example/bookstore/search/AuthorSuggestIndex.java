@@ -0,0 +1,231 @@
+package com.example.bookstore.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.stereotype.Component;
+
+/**
+ * Case-insensitive radix trie of author names for prefix autocomplete.
+ * Children are kept sorted, so a depth-first walk yields names in alphabetical
+ * order and a lookup stops as soon as it has collected the requested number of names.
+ * Each name counts the books written by that author and leaves the trie with the last one.
+ */
+@Component
+public class AuthorSuggestIndex {
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> keyByBook = new HashMap<>();
+    private Node root = new Node("");
+    private int size;
+
+    public void add(Long bookId, String name) {
+        if (name == null || name.isBlank()) {
+            remove(bookId);
+            return;
+        }
+        String key = normalize(name);
+        lock.writeLock().lock();
+        try {
+            String previous = keyByBook.put(bookId, key);
+            if (key.equals(previous)) {
+                return;
+            }
+            if (previous != null) {
+                release(root, previous, 0);
+            }
+            insert(key, name.trim());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            String previous = keyByBook.remove(bookId);
+            if (previous != null) {
+                release(root, previous, 0);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            keyByBook.clear();
+            root = new Node("");
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix == null ? "" : prefix);
+        List<String> names = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int matched = 0;
+            while (matched < key.length()) {
+                Node child = child(node, key.charAt(matched));
+                if (child == null) {
+                    return names;
+                }
+                int length = Math.min(child.edge.length(), key.length() - matched);
+                if (!child.edge.regionMatches(0, key, matched, length)) {
+                    return names;
+                }
+                matched += length;
+                node = child;
+            }
+            collect(node, names, limit);
+            return names;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(String key, String name) {
+        Node node = root;
+        int matched = 0;
+        while (matched < key.length()) {
+            int index = childIndex(node, key.charAt(matched));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(matched));
+                leaf.name = name;
+                leaf.books = 1;
+                node.insertChild(-index - 1, leaf);
+                size++;
+                return;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.edge, key, matched);
+            if (common < child.edge.length()) {
+                Node split = new Node(child.edge.substring(0, common));
+                child.edge = child.edge.substring(common);
+                split.children = new Node[]{child};
+                node.children[index] = split;
+                child = split;
+            }
+            matched += common;
+            node = child;
+        }
+        if (node.books++ == 0) {
+            node.name = name;
+            size++;
+        }
+    }
+
+    /**
+     * Drops one book from the name stored under {@code key} and returns whether the
+     * node is left without a name or children, so the caller can unlink it.
+     */
+    private boolean release(Node node, String key, int matched) {
+        if (matched == key.length()) {
+            if (--node.books == 0) {
+                node.name = null;
+                size--;
+            }
+        } else {
+            int index = childIndex(node, key.charAt(matched));
+            Node child = node.children[index];
+            if (release(child, key, matched + child.edge.length())) {
+                node.removeChild(index);
+            }
+        }
+        return node != root && node.name == null && node.children.length == 0;
+    }
+
+    private void collect(Node node, List<String> names, int limit) {
+        if (names.size() >= limit) {
+            return;
+        }
+        if (node.name != null) {
+            names.add(node.name);
+        }
+        for (Node child : node.children) {
+            if (names.size() >= limit) {
+                return;
+            }
+            collect(child, names, limit);
+        }
+    }
+
+    private Node child(Node node, char first) {
+        int index = childIndex(node, first);
+        return index < 0 ? null : node.children[index];
+    }
+
+    private int childIndex(Node node, char first) {
+        int low = 0;
+        int high = node.children.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midChar = node.children[mid].edge.charAt(0);
+            if (midChar < first) {
+                low = mid + 1;
+            } else if (midChar > first) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static int commonPrefix(String edge, String key, int offset) {
+        int max = Math.min(edge.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && edge.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Node {
+        private String edge;
+        private Node[] children = NO_CHILDREN;
+        private String name;
+        private int books;
+
+        private Node(String edge) {
+            this.edge = edge;
+        }
+
+        private void insertChild(int index, Node child) {
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, index);
+            grown[index] = child;
+            System.arraycopy(children, index, grown, index + 1, children.length - index);
+            children = grown;
+        }
+
+        private void removeChild(int index) {
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, index);
+            System.arraycopy(children, index + 1, shrunk, index, shrunk.length - index);
+            children = shrunk;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.bookstore.search;
+
+import com.example.bookstore.dto.book.BookFacetsDto;
+import com.example.bookstore.dto.book.FacetCountDto;
+import com.example.bookstore.dto.book.PriceBucketDto;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory author, price and category of every book, used to count search facets
+ * in a single scan. Counts are disjunctive: the author facet ignores the author filter
+ * and the price facet ignores the price filter, so every option shows how many books
+ * selecting it would give.
+ */
+@Component
+public class BookFacetIndex {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, Integer> authorOrdinals = new HashMap<>();
+    private final List<String> authors = new ArrayList<>();
+    private final BigDecimal[] priceBounds;
+    private final long[] priceBoundCents;
+    private final int maxAuthors;
+
+    public BookFacetIndex(
+            @Value("${search.facets.price-bounds:10,25,50,100}") BigDecimal[] priceBounds,
+            @Value("${search.facets.max-authors:20}") int maxAuthors) {
+        this.priceBounds = priceBounds.clone();
+        Arrays.sort(this.priceBounds);
+        this.priceBoundCents = Arrays.stream(this.priceBounds)
+                .mapToLong(bound -> cents(bound, RoundingMode.CEILING))
+                .toArray();
+        this.maxAuthors = maxAuthors;
+    }
+
+    public void index(Long bookId, String author, BigDecimal price,
+                      Collection<Long> categoryIds) {
+        long[] categories = categoryIds.stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+        lock.writeLock().lock();
+        try {
+            int ordinal = authorOrdinals.computeIfAbsent(author, key -> {
+                authors.add(key);
+                return authors.size() - 1;
+            });
+            entries.put(bookId, new Entry(ordinal, cents(price, RoundingMode.HALF_UP),
+                    categories));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            entries.remove(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeCategory(Long categoryId) {
+        lock.writeLock().lock();
+        try {
+            entries.replaceAll((bookId, entry) -> entry.withoutCategory(categoryId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            authorOrdinals.clear();
+            authors.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts facets for the books matching the same filters as
+     * {@code BookSpecificationBuilder}: authors by exact name, price between both bounds.
+     */
+    public BookFacetsDto count(String[] authorFilter, BigDecimal minPrice, BigDecimal maxPrice) {
+        boolean filterPrice = minPrice != null && maxPrice != null;
+        long minCents = filterPrice ? cents(minPrice, RoundingMode.CEILING) : Long.MIN_VALUE;
+        long maxCents = filterPrice ? cents(maxPrice, RoundingMode.FLOOR) : Long.MAX_VALUE;
+        lock.readLock().lock();
+        try {
+            boolean[] selectedAuthors = selectedAuthors(authorFilter);
+            int[] authorCounts = new int[authors.size()];
+            long[] priceCounts = new long[priceBoundCents.length + 1];
+            Map<Long, long[]> categoryCounts = new HashMap<>();
+            long total = 0;
+            for (Entry entry : entries.values()) {
+                boolean authorMatch = selectedAuthors == null || selectedAuthors[entry.author];
+                boolean priceMatch = entry.priceCents >= minCents && entry.priceCents <= maxCents;
+                if (priceMatch) {
+                    authorCounts[entry.author]++;
+                }
+                if (authorMatch) {
+                    priceCounts[bucket(entry.priceCents)]++;
+                }
+                if (authorMatch && priceMatch) {
+                    total++;
+                    for (long categoryId : entry.categoryIds) {
+                        categoryCounts.computeIfAbsent(categoryId, key -> new long[1])[0]++;
+                    }
+                }
+            }
+            return new BookFacetsDto(total, topAuthors(authorCounts),
+                    priceBuckets(priceCounts), categories(categoryCounts));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean[] selectedAuthors(String[] authorFilter) {
+        if (authorFilter == null || authorFilter.length == 0) {
+            return null;
+        }
+        boolean[] selected = new boolean[authors.size()];
+        for (String author : authorFilter) {
+            Integer ordinal = authorOrdinals.get(author);
+            if (ordinal != null) {
+                selected[ordinal] = true;
+            }
+        }
+        return selected;
+    }
+
+    private List<FacetCountDto<String>> topAuthors(int[] authorCounts) {
+        Comparator<Integer> byCount = Comparator.<Integer>comparingInt(i -> authorCounts[i])
+                .thenComparing(authors::get, Comparator.reverseOrder());
+        PriorityQueue<Integer> top = new PriorityQueue<>(byCount);
+        for (int i = 0; i < authorCounts.length; i++) {
+            if (authorCounts[i] == 0) {
+                continue;
+            }
+            if (top.size() < maxAuthors) {
+                top.add(i);
+            } else if (byCount.compare(i, top.peek()) > 0) {
+                top.poll();
+                top.add(i);
+            }
+        }
+        return top.stream()
+                .sorted(byCount.reversed())
+                .map(i -> new FacetCountDto<>(authors.get(i), (long) authorCounts[i]))
+                .toList();
+    }
+
+    private List<PriceBucketDto> priceBuckets(long[] priceCounts) {
+        List<PriceBucketDto> buckets = new ArrayList<>(priceCounts.length);
+        for (int i = 0; i < priceCounts.length; i++) {
+            BigDecimal from = i == 0 ? BigDecimal.ZERO : priceBounds[i - 1];
+            BigDecimal to = i == priceBounds.length ? null : priceBounds[i];
+            buckets.add(new PriceBucketDto(from, to, priceCounts[i]));
+        }
+        return buckets;
+    }
+
+    private List<FacetCountDto<Long>> categories(Map<Long, long[]> categoryCounts) {
+        return categoryCounts.entrySet().stream()
+                .map(count -> new FacetCountDto<>(count.getKey(), count.getValue()[0]))
+                .sorted(Comparator.<FacetCountDto<Long>>comparingLong(FacetCountDto::getCount)
+                        .reversed()
+                        .thenComparing(FacetCountDto::getValue))
+                .toList();
+    }
+
+    private int bucket(long priceCents) {
+        int index = Arrays.binarySearch(priceBoundCents, priceCents);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private static long cents(BigDecimal price, RoundingMode roundingMode) {
+        return price.setScale(2, roundingMode).unscaledValue().longValueExact();
+    }
+
+    private record Entry(int author, long priceCents, long[] categoryIds) {
+        private Entry withoutCategory(long categoryId) {
+            long[] remaining = Arrays.stream(categoryIds)
+                    .filter(id -> id != categoryId)
+                    .toArray();
+            return remaining.length == categoryIds.length
+                    ? this : new Entry(author, priceCents, remaining);
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.example.bookstore.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory inverted index over book title, author and description.
+ * Posting lists are primitive arrays sorted by book id, with a lazily built
+ * impact order (highest weight first), so top-k queries stop early instead of
+ * scoring every matching book. Each book keeps its own term list, so
+ * re-indexing or removing it only touches the postings it is in.
+ */
+@Component
+public class BookSearchIndex {
+    private static final float TITLE_BOOST = 3.0f;
+    private static final float AUTHOR_BOOST = 2.0f;
+    private static final float DESCRIPTION_BOOST = 1.0f;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in",
+            "is", "it", "of", "on", "or", "the", "to", "with");
+    private static final int INTERSECTION_SCAN_LIMIT = 50_000;
+    private static final Comparator<ScoredBook> BY_SCORE = Comparator
+            .comparingDouble(ScoredBook::score)
+            .thenComparing(ScoredBook::bookId, Comparator.reverseOrder());
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postingsByTerm = new HashMap<>();
+    private final Map<Long, String[]> termsByBook = new HashMap<>();
+
+    public void index(Long bookId, String title, String author, String description) {
+        Map<String, Float> weights = new HashMap<>();
+        addFieldWeights(weights, title, TITLE_BOOST);
+        addFieldWeights(weights, author, AUTHOR_BOOST);
+        addFieldWeights(weights, description, DESCRIPTION_BOOST);
+        lock.writeLock().lock();
+        try {
+            String[] previousTerms = termsByBook.put(bookId,
+                    weights.keySet().toArray(String[]::new));
+            if (previousTerms != null) {
+                removePostings(bookId, previousTerms);
+            }
+            weights.forEach((term, weight) -> postingsByTerm
+                    .computeIfAbsent(term, key -> new Postings())
+                    .put(bookId, weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            String[] terms = termsByBook.remove(bookId);
+            if (terms != null) {
+                removePostings(bookId, terms);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postingsByTerm.clear();
+            termsByBook.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the impact order of every posting list up front, so the first
+     * queries after a bulk load don't pay for sorting.
+     */
+    public void prepare() {
+        lock.readLock().lock();
+        try {
+            postingsByTerm.values().forEach(Postings::impactOrder);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return termsByBook.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns ids of the books containing every query term, best match first.
+     */
+    public List<Long> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Postings> postings = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Postings termPostings = postingsByTerm.get(term);
+                if (termPostings == null) {
+                    return List.of();
+                }
+                postings.add(termPostings);
+            }
+            postings.sort(Comparator.comparingInt(Postings::size));
+            int matches = Math.min(limit, postings.get(0).size());
+            return postings.size() > 1 && postings.get(0).size() <= INTERSECTION_SCAN_LIMIT
+                    ? intersect(postings, matches)
+                    : topBooks(postings, matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty() && !STOP_WORDS.contains(token))
+                .toList();
+    }
+
+    /**
+     * Document-at-a-time intersection: walks the shortest list in id order and
+     * gallops forward in the other lists. Cheap while the shortest list is short.
+     */
+    private List<Long> intersect(List<Postings> postings, int limit) {
+        int terms = postings.size();
+        float[] idf = idf(postings);
+        int[] cursors = new int[terms];
+        PriorityQueue<ScoredBook> top = new PriorityQueue<>(limit + 1, BY_SCORE);
+        Postings lead = postings.get(0);
+        candidates:
+        for (int position = 0; position < lead.size(); position++) {
+            long bookId = lead.bookIds[position];
+            float score = idf[0] * lead.weights[position];
+            for (int i = 1; i < terms; i++) {
+                Postings termPostings = postings.get(i);
+                cursors[i] = termPostings.advance(cursors[i], bookId);
+                if (cursors[i] == termPostings.size()) {
+                    break candidates;
+                }
+                if (termPostings.bookIds[cursors[i]] != bookId) {
+                    continue candidates;
+                }
+                score += idf[i] * termPostings.weights[cursors[i]];
+            }
+            offer(top, bookId, score, limit);
+        }
+        return ranked(top);
+    }
+
+    /**
+     * Threshold algorithm: walks all posting lists in impact order side by side and
+     * scores every newly seen book completely. No unseen book can score more than
+     * the sum of the weights at the current depth, and once any list is exhausted
+     * no unseen book contains every term.
+     */
+    private List<Long> topBooks(List<Postings> postings, int limit) {
+        int terms = postings.size();
+        float[] idf = idf(postings);
+        int[][] impactOrders = new int[terms][];
+        for (int i = 0; i < terms; i++) {
+            impactOrders[i] = postings.get(i).impactOrder();
+        }
+        PriorityQueue<ScoredBook> top = new PriorityQueue<>(limit + 1, BY_SCORE);
+        Set<Long> seen = new HashSet<>();
+        for (int depth = 0; depth < postings.get(0).size(); depth++) {
+            float threshold = 0;
+            for (int i = 0; i < terms; i++) {
+                int position = impactOrders[i][depth];
+                Postings termPostings = postings.get(i);
+                threshold += idf[i] * termPostings.weights[position];
+                long bookId = termPostings.bookIds[position];
+                if (seen.add(bookId)) {
+                    float score = score(postings, idf, bookId);
+                    if (score >= 0) {
+                        offer(top, bookId, score, limit);
+                    }
+                }
+            }
+            if (top.size() == limit && top.peek().score() >= threshold) {
+                break;
+            }
+        }
+        return ranked(top);
+    }
+
+    private float[] idf(List<Postings> postings) {
+        int books = termsByBook.size();
+        float[] idf = new float[postings.size()];
+        for (int i = 0; i < postings.size(); i++) {
+            idf[i] = (float) Math.log(1 + (double) books / postings.get(i).size());
+        }
+        return idf;
+    }
+
+    private void offer(PriorityQueue<ScoredBook> top, long bookId, float score, int limit) {
+        if (top.size() == limit && score <= top.peek().score()) {
+            return;
+        }
+        top.offer(new ScoredBook(bookId, score));
+        if (top.size() > limit) {
+            top.poll();
+        }
+    }
+
+    private List<Long> ranked(PriorityQueue<ScoredBook> top) {
+        List<ScoredBook> result = new ArrayList<>(top);
+        result.sort(BY_SCORE.reversed());
+        return result.stream().map(ScoredBook::bookId).toList();
+    }
+
+    private float score(List<Postings> postings, float[] idf, long bookId) {
+        float score = 0;
+        for (int i = 0; i < postings.size(); i++) {
+            int index = postings.get(i).indexOf(bookId);
+            if (index < 0) {
+                return -1;
+            }
+            score += idf[i] * postings.get(i).weights[index];
+        }
+        return score;
+    }
+
+    private void addFieldWeights(Map<String, Float> weights, String text, float boost) {
+        List<String> tokens = tokenize(text);
+        if (tokens.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokens.forEach(token -> frequencies.merge(token, 1, Integer::sum));
+        double lengthNorm = Math.sqrt(tokens.size());
+        frequencies.forEach((term, frequency) -> weights.merge(term,
+                (float) (boost * (1 + Math.log(frequency)) / lengthNorm), Float::sum));
+    }
+
+    private void removePostings(Long bookId, String[] terms) {
+        for (String term : terms) {
+            Postings termPostings = postingsByTerm.get(term);
+            if (termPostings.remove(bookId) && termPostings.size() == 0) {
+                postingsByTerm.remove(term);
+            }
+        }
+    }
+
+    private record ScoredBook(long bookId, float score) {
+    }
+
+    private static final class Postings {
+        private static final int INITIAL_CAPACITY = 4;
+        private long[] bookIds = new long[INITIAL_CAPACITY];
+        private float[] weights = new float[INITIAL_CAPACITY];
+        private int size;
+        private int[] impactOrder;
+
+        int size() {
+            return size;
+        }
+
+        int indexOf(long bookId) {
+            return Arrays.binarySearch(bookIds, 0, size, bookId);
+        }
+
+        /**
+         * Position of the first book id not less than bookId, searching from
+         * position with exponentially growing steps.
+         */
+        int advance(int position, long bookId) {
+            if (position >= size || bookIds[position] >= bookId) {
+                return position;
+            }
+            int step = 1;
+            int low = position;
+            while (low + step < size && bookIds[low + step] < bookId) {
+                low += step;
+                step <<= 1;
+            }
+            int index = Arrays.binarySearch(bookIds, low + 1, Math.min(low + step, size - 1) + 1,
+                    bookId);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        void put(long bookId, float weight) {
+            int index = indexOf(bookId);
+            if (index >= 0) {
+                weights[index] = weight;
+            } else {
+                int insertAt = -index - 1;
+                if (size == bookIds.length) {
+                    bookIds = Arrays.copyOf(bookIds, size * 2);
+                    weights = Arrays.copyOf(weights, size * 2);
+                }
+                System.arraycopy(bookIds, insertAt, bookIds, insertAt + 1, size - insertAt);
+                System.arraycopy(weights, insertAt, weights, insertAt + 1, size - insertAt);
+                bookIds[insertAt] = bookId;
+                weights[insertAt] = weight;
+                size++;
+            }
+            impactOrder = null;
+        }
+
+        boolean remove(long bookId) {
+            int index = indexOf(bookId);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(bookIds, index + 1, bookIds, index, size - index - 1);
+            System.arraycopy(weights, index + 1, weights, index, size - index - 1);
+            size--;
+            impactOrder = null;
+            return true;
+        }
+
+        /**
+         * Positions sorted by weight descending, ties by book id ascending. Packs
+         * the inverted weight bits and the position into one long so the sort
+         * stays on primitives.
+         */
+        synchronized int[] impactOrder() {
+            if (impactOrder == null) {
+                long[] keys = new long[size];
+                for (int i = 0; i < size; i++) {
+                    long invertedWeight = Integer.MAX_VALUE - Float.floatToIntBits(weights[i]);
+                    keys[i] = invertedWeight << Integer.SIZE | i;
+                }
+                Arrays.sort(keys);
+                int[] order = new int[size];
+                for (int i = 0; i < size; i++) {
+                    order[i] = (int) keys[i];
+                }
+                impactOrder = order;
+            }
+            return impactOrder;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.bookstore.search;
+
+import com.example.bookstore.dto.book.BookDto;
+import com.example.bookstore.event.BookDeletedEvent;
+import com.example.bookstore.event.BookSavedEvent;
+import com.example.bookstore.event.CategoryDeletedEvent;
+import com.example.bookstore.repository.BookExportRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookSearchIndexSynchronizer {
+    private final BookSearchIndex bookSearchIndex;
+    private final BookFacetIndex bookFacetIndex;
+    private final AuthorSuggestIndex authorSuggestIndex;
+    private final BookExportRepository bookExportRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        final long start = System.currentTimeMillis();
+        bookSearchIndex.clear();
+        bookFacetIndex.clear();
+        authorSuggestIndex.clear();
+        bookExportRepository.streamAll(this::index);
+        bookSearchIndex.prepare();
+        log.info("Indexed {} books for full-text search and facets, {} authors in {} ms",
+                bookSearchIndex.size(), authorSuggestIndex.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookSaved(BookSavedEvent event) {
+        index(event.book());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookDeleted(BookDeletedEvent event) {
+        bookSearchIndex.remove(event.bookId());
+        bookFacetIndex.remove(event.bookId());
+        authorSuggestIndex.remove(event.bookId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryDeleted(CategoryDeletedEvent event) {
+        bookFacetIndex.removeCategory(event.categoryId());
+    }
+
+    private void index(BookDto book) {
+        bookSearchIndex.index(book.getId(), book.getTitle(),
+                book.getAuthor(), book.getDescription());
+        bookFacetIndex.index(book.getId(), book.getAuthor(), book.getPrice(),
+                book.getCategoryIds());
+        authorSuggestIndex.add(book.getId(), book.getAuthor());
+    }
+}
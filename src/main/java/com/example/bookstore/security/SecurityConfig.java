@@ -41,6 +41,8 @@ public class SecurityConfig {
                                         "/v3/api-docs/**",
                                         "/v2/api-docs/**")
                                 .permitAll()
+                                .requestMatchers("/actuator/**")
+                                .hasRole("ADMIN")
                                 .anyRequest()
                                 .authenticated()
                 )
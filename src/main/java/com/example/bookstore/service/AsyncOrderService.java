@@ -0,0 +1,14 @@
+package com.example.bookstore.service;
+
+import com.example.bookstore.dto.order.OrderDto;
+import com.example.bookstore.dto.order.PostOrderRequestDto;
+import org.springframework.security.core.Authentication;
+
+public interface AsyncOrderService {
+    /**
+     * Saves the order as PENDING and queues its checkout, which marks it PROCESSED, or
+     * CANCELED when checkout fails. Throws {@code OrderQueueFullException} when the
+     * queue has no room.
+     */
+    OrderDto placeOrder(Authentication authentication, PostOrderRequestDto dto);
+}
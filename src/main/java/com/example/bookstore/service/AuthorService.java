@@ -0,0 +1,7 @@
+package com.example.bookstore.service;
+
+import java.util.List;
+
+public interface AuthorService {
+    List<String> suggest(String prefix, int limit);
+}
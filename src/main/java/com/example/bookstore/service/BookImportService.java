@@ -0,0 +1,10 @@
+package com.example.bookstore.service;
+
+import com.example.bookstore.dto.book.BookImportReportDto;
+import com.example.bookstore.export.BookExportFormat;
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface BookImportService {
+    BookImportReportDto importBooks(BookExportFormat format, InputStream in) throws IOException;
+}
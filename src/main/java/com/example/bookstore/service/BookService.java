@@ -1,9 +1,14 @@
 package com.example.bookstore.service;
 
+import com.example.bookstore.dto.book.BookCursorPageDto;
 import com.example.bookstore.dto.book.BookDto;
 import com.example.bookstore.dto.book.BookDtoWithoutCategoryIds;
+import com.example.bookstore.dto.book.BookFacetedPageDto;
 import com.example.bookstore.dto.book.BookSearchParams;
 import com.example.bookstore.dto.book.CreateBookRequestDto;
+import com.example.bookstore.export.BookExportFormat;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import org.springframework.data.domain.Pageable;
 
@@ -12,6 +17,8 @@ public interface BookService {
 
     List<BookDto> findAll(Pageable pageable);
 
+    BookCursorPageDto findAll(String cursor, Pageable pageable);
+
     BookDto findById(Long id);
 
     void deleteById(Long id);
@@ -20,9 +27,15 @@ public interface BookService {
 
     List<BookDto> search(BookSearchParams params, Pageable pageable);
 
+    BookCursorPageDto search(BookSearchParams params, String cursor, Pageable pageable);
+
+    BookFacetedPageDto searchWithFacets(BookSearchParams params, Pageable pageable);
+
+    List<BookDto> fullTextSearch(String query, Pageable pageable);
+
     List<BookDtoWithoutCategoryIds> findAllByCategoryId(Long id);
 
     BookDto addBookToCategory(Long bookId, Long categoryId);
 
-    List<BookDto> findAllWithCategories();
+    void exportAll(BookExportFormat format, OutputStream out) throws IOException;
 }
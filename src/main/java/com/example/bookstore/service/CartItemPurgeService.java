@@ -0,0 +1,11 @@
+package com.example.bookstore.service;
+
+import com.example.bookstore.dto.cart.CartItemPurgeReportDto;
+
+public interface CartItemPurgeService {
+    /**
+     * Moves soft-deleted cart lines and lines of carts untouched for longer than the
+     * configured period to the archive table, or deletes them when archiving is off.
+     */
+    CartItemPurgeReportDto purge();
+}
@@ -2,6 +2,7 @@ package com.example.bookstore.service;
 
 import com.example.bookstore.dto.category.CategoryDto;
 import com.example.bookstore.dto.category.CategoryRequestDto;
+import com.example.bookstore.dto.version.EntityVersionDto;
 import java.util.List;
 import org.springframework.data.domain.Pageable;
 
@@ -10,6 +11,8 @@ public interface CategoryService {
 
     CategoryDto findById(Long id);
 
+    EntityVersionDto findVersionById(Long id);
+
     CategoryDto save(CategoryRequestDto categoryRequestDto);
 
     CategoryDto update(Long id, CategoryRequestDto categoryRequestDto);
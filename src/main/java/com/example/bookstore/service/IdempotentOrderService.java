@@ -0,0 +1,15 @@
+package com.example.bookstore.service;
+
+import com.example.bookstore.dto.order.OrderDto;
+import com.example.bookstore.dto.order.PostOrderRequestDto;
+import org.springframework.security.core.Authentication;
+
+public interface IdempotentOrderService {
+    /**
+     * Places the order once per user and key. A repeated key returns the original order
+     * without running checkout again, a concurrent one waits for the first attempt, and
+     * a key reused with a different request is rejected.
+     */
+    OrderDto placeOrder(Authentication authentication, String idempotencyKey,
+                        PostOrderRequestDto dto);
+}
@@ -0,0 +1,10 @@
+package com.example.bookstore.service;
+
+public interface OrderOutboxRelayService {
+    /**
+     * Delivers pending order events to the sink in id order, one batch per transaction,
+     * and returns how many were delivered. Stops at the first batch the sink refuses;
+     * that batch stays in the outbox and is delivered again on the next run.
+     */
+    long relay();
+}
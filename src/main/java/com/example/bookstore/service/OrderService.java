@@ -2,8 +2,10 @@ package com.example.bookstore.service;
 
 import com.example.bookstore.dto.order.OrderDto;
 import com.example.bookstore.dto.order.OrderItemDto;
+import com.example.bookstore.dto.order.OrderSummaryPageDto;
 import com.example.bookstore.dto.order.PostOrderRequestDto;
 import com.example.bookstore.dto.order.PutOrderRequest;
+import java.time.LocalDateTime;
 import java.util.List;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
@@ -11,7 +13,27 @@ import org.springframework.security.core.Authentication;
 public interface OrderService {
     OrderDto placeOrder(Authentication authentication, PostOrderRequestDto dto);
 
-    List<OrderDto> getAll(Authentication authentication, Pageable pageable);
+    /**
+     * Saves an empty PENDING order to be checked out later by {@link #processAcceptedOrder}.
+     */
+    OrderDto acceptOrder(Authentication authentication, PostOrderRequestDto dto);
+
+    /**
+     * Checks the owner's cart out into an accepted order and marks it PROCESSED.
+     */
+    void processAcceptedOrder(Long orderId);
+
+    void cancelAcceptedOrder(Long orderId);
+
+    /**
+     * Orders of the current user, only those placed in [from, to) when either bound is
+     * given.
+     */
+    List<OrderDto> getAll(Authentication authentication, LocalDateTime from, LocalDateTime to,
+                          Pageable pageable);
+
+    OrderSummaryPageDto getSummaries(Authentication authentication, String cursor,
+                                     Pageable pageable);
 
     List<OrderItemDto> getAllOrderItems(Authentication authentication,
                                         Long orderId, Pageable pageable);
@@ -0,0 +1,12 @@
+package com.example.bookstore.service;
+
+import com.example.bookstore.dto.order.BulkOrderStatusRequestDto;
+import com.example.bookstore.dto.order.BulkOrderStatusResultDto;
+
+public interface OrderStatusService {
+    /**
+     * Moves every selected order allowed to make the transition to the new status in one
+     * transaction, and reports the others with the reason they were left alone.
+     */
+    BulkOrderStatusResultDto updateStatuses(BulkOrderStatusRequestDto request);
+}
@@ -1,18 +1,24 @@
 package com.example.bookstore.service;
 
 import com.example.bookstore.dto.cart.AddItemToCartRequest;
+import com.example.bookstore.dto.cart.CartDeltaDto;
 import com.example.bookstore.dto.cart.ShoppingCartDto;
+import com.example.bookstore.dto.cart.UpdateCartRequest;
 import com.example.bookstore.dto.cart.UpdateItemRequest;
 import org.springframework.security.core.Authentication;
 
 public interface ShoppingCartService {
-    ShoppingCartDto addToCart(Authentication authentication, AddItemToCartRequest dto);
+    CartDeltaDto addToCart(Authentication authentication, AddItemToCartRequest dto);
+
+    CartDeltaDto updateCart(Authentication authentication, UpdateCartRequest request);
 
     ShoppingCartDto getByUser(Authentication authentication);
 
-    ShoppingCartDto updateCartItem(Authentication authentication,
-                                   Long itemId,
-                                   UpdateItemRequest dto);
+    Long findVersion(Authentication authentication);
+
+    CartDeltaDto updateCartItem(Authentication authentication,
+                                Long itemId,
+                                UpdateItemRequest dto);
 
-    ShoppingCartDto deleteCartItem(Long itemId, Authentication authentication);
+    CartDeltaDto deleteCartItem(Long itemId, Authentication authentication);
 }
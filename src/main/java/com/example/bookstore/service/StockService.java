@@ -0,0 +1,25 @@
+package com.example.bookstore.service;
+
+import com.example.bookstore.dto.book.BookStockDto;
+import java.util.Map;
+import java.util.Set;
+
+public interface StockService {
+    BookStockDto getStock(Long bookId);
+
+    BookStockDto setStock(Long bookId, int quantity);
+
+    /**
+     * Takes the quantities from stock in the caller's transaction, or throws
+     * {@code InsufficientStockException} when a tracked book has too few units left.
+     * Returns the ids of the books units were actually taken from; untracked books are
+     * left out.
+     */
+    Set<Long> reserve(Map<Long, Integer> quantitiesByBookId);
+
+    /**
+     * Returns reserved units to stock. Books that are not stock-tracked are skipped, so a
+     * release never creates stock.
+     */
+    void release(Map<Long, Integer> quantitiesByBookId);
+}
@@ -0,0 +1,115 @@
+package com.example.bookstore.service.impl;
+
+import com.example.bookstore.dto.order.OrderDto;
+import com.example.bookstore.dto.order.PostOrderRequestDto;
+import com.example.bookstore.exception.OrderQueueFullException;
+import com.example.bookstore.service.AsyncOrderService;
+import com.example.bookstore.service.OrderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs checkouts on {@code order.async.workers} threads. At most
+ * {@code order.async.queue-capacity} accepted orders wait for a worker; beyond that new
+ * orders are refused before anything is written, so a spike can't pile up work the
+ * database will never catch up with.
+ */
+@Slf4j
+@Service
+public class AsyncOrderServiceImpl implements AsyncOrderService {
+    private final OrderService orderService;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore slots;
+    private final Timer lag;
+    private final Timer placement;
+    private final Counter processed;
+    private final Counter canceled;
+    private final Counter rejected;
+
+    public AsyncOrderServiceImpl(OrderService orderService, MeterRegistry meterRegistry,
+                                 @Value("${order.async.workers:4}") int workers,
+                                 @Value("${order.async.queue-capacity:500}") int queueCapacity) {
+        this.orderService = orderService;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("order-placement-"));
+        this.slots = new Semaphore(workers + queueCapacity);
+        Gauge.builder("orders.async.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Accepted orders waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("orders.async.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        this.lag = Timer.builder("orders.async.lag")
+                .description("Time from accepting an order to starting its checkout")
+                .register(meterRegistry);
+        this.placement = Timer.builder("orders.async.placement")
+                .register(meterRegistry);
+        this.processed = outcome(meterRegistry, "processed");
+        this.canceled = outcome(meterRegistry, "canceled");
+        this.rejected = outcome(meterRegistry, "rejected");
+    }
+
+    @Override
+    public OrderDto placeOrder(Authentication authentication, PostOrderRequestDto dto) {
+        if (!slots.tryAcquire()) {
+            rejected.increment();
+            throw new OrderQueueFullException("Too many orders are waiting, retry later");
+        }
+        OrderDto accepted;
+        try {
+            accepted = orderService.acceptOrder(authentication, dto);
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+        long acceptedAt = System.nanoTime();
+        try {
+            executor.execute(() -> process(accepted.getId(), acceptedAt));
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            orderService.cancelAcceptedOrder(accepted.getId());
+            throw new OrderQueueFullException("Order placement is shutting down, retry later");
+        }
+        return accepted;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("{} accepted orders were left unprocessed", executor.getQueue().size());
+        }
+    }
+
+    private void process(Long orderId, long acceptedAt) {
+        lag.record(System.nanoTime() - acceptedAt, TimeUnit.NANOSECONDS);
+        try {
+            placement.record(() -> orderService.processAcceptedOrder(orderId));
+            processed.increment();
+        } catch (RuntimeException e) {
+            log.warn("Canceling order {}: {}", orderId, e.getMessage());
+            orderService.cancelAcceptedOrder(orderId);
+            canceled.increment();
+        } finally {
+            slots.release();
+        }
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("orders.async.orders")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
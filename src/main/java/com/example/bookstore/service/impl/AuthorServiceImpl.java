@@ -0,0 +1,20 @@
+package com.example.bookstore.service.impl;
+
+import com.example.bookstore.search.AuthorSuggestIndex;
+import com.example.bookstore.service.AuthorService;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class AuthorServiceImpl implements AuthorService {
+    private static final int MAX_SUGGESTIONS = 50;
+    private final AuthorSuggestIndex authorSuggestIndex;
+
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        return authorSuggestIndex.suggest(prefix,
+                Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.bookstore.service.impl;
+
+import com.example.bookstore.dto.book.BookDto;
+import com.example.bookstore.dto.book.BookImportErrorDto;
+import com.example.bookstore.dto.book.BookImportReportDto;
+import com.example.bookstore.dto.book.CreateBookRequestDto;
+import com.example.bookstore.event.BookSavedEvent;
+import com.example.bookstore.export.BookExportFormat;
+import com.example.bookstore.imports.BookImportReader;
+import com.example.bookstore.imports.BookImportRow;
+import com.example.bookstore.imports.CsvBookImportReader;
+import com.example.bookstore.imports.NdjsonBookImportReader;
+import com.example.bookstore.model.Category;
+import com.example.bookstore.repository.BookImportRepository;
+import com.example.bookstore.repository.CategoryRepository;
+import com.example.bookstore.service.BookImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+@RequiredArgsConstructor
+public class BookImportServiceImpl implements BookImportService {
+    private final BookImportRepository bookImportRepository;
+    private final CategoryRepository categoryRepository;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    @Value("${book.import.batch-size:1000}")
+    private int batchSize;
+    @Value("${book.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Override
+    public BookImportReportDto importBooks(BookExportFormat format, InputStream in)
+            throws IOException {
+        BookImportReader reader = switch (format) {
+            case NDJSON -> new NdjsonBookImportReader(in, objectMapper);
+            case CSV -> new CsvBookImportReader(in);
+        };
+        Set<Long> categoryIds = categoryRepository.findAll().stream()
+                .map(Category::getId)
+                .collect(Collectors.toSet());
+        BookImportReportDto report = new BookImportReportDto();
+        List<BookImportRow> batch = new ArrayList<>(batchSize);
+        Set<String> batchIsbns = new HashSet<>();
+        for (BookImportRow row = reader.next(); row != null; row = reader.next()) {
+            String error = row.error() != null ? row.error() : validate(row, categoryIds);
+            if (error == null && !batchIsbns.add(row.book().getIsbn())) {
+                error = "isbn is repeated in the upload";
+            }
+            if (error != null) {
+                reject(report, row.line(), error);
+                continue;
+            }
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                saveBatch(batch, report);
+                batch.clear();
+                batchIsbns.clear();
+            }
+        }
+        saveBatch(batch, report);
+        return report;
+    }
+
+    private String validate(BookImportRow row, Set<Long> categoryIds) {
+        Set<ConstraintViolation<CreateBookRequestDto>> violations =
+                validator.validate(row.book());
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " "
+                            + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        List<Long> unknown = row.categoryIds().stream()
+                .filter(id -> !categoryIds.contains(id))
+                .toList();
+        return unknown.isEmpty() ? null : "categories " + unknown + " not found";
+    }
+
+    private void saveBatch(List<BookImportRow> batch, BookImportReportDto report) {
+        Set<String> existingIsbns = bookImportRepository.findExistingIsbns(batch.stream()
+                .map(row -> row.book().getIsbn())
+                .toList());
+        List<BookImportRow> rows = new ArrayList<>(batch.size());
+        for (BookImportRow row : batch) {
+            if (existingIsbns.contains(row.book().getIsbn())) {
+                reject(report, row.line(), "book with isbn " + row.book().getIsbn()
+                        + " already exists");
+            } else {
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(rows));
+            report.setImported(report.getImported() + rows.size());
+        } catch (DataAccessException batchFailure) {
+            for (BookImportRow row : rows) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(row)));
+                    report.setImported(report.getImported() + 1);
+                } catch (DataAccessException e) {
+                    reject(report, row.line(), "could not be saved: "
+                            + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                }
+            }
+        }
+    }
+
+    private void insert(List<BookImportRow> rows) {
+        bookImportRepository.insertAuthors(rows.stream()
+                .map(row -> row.book().getAuthor())
+                .collect(Collectors.toCollection(TreeSet::new)));
+        Map<String, Long> ids = bookImportRepository.insertBooks(rows.stream()
+                .map(BookImportRow::book)
+                .toList());
+        List<Object[]> bookCategoryIds = new ArrayList<>();
+        for (BookImportRow row : rows) {
+            Long id = ids.get(row.book().getIsbn());
+            row.categoryIds()
+                    .forEach(categoryId -> bookCategoryIds.add(new Object[]{id, categoryId}));
+        }
+        bookImportRepository.insertBookCategories(bookCategoryIds);
+        for (BookImportRow row : rows) {
+            CreateBookRequestDto book = row.book();
+            eventPublisher.publishEvent(new BookSavedEvent(BookDto.builder()
+                    .id(ids.get(book.getIsbn()))
+                    .title(book.getTitle())
+                    .author(book.getAuthor())
+                    .isbn(book.getIsbn())
+                    .price(book.getPrice())
+                    .description(book.getDescription())
+                    .coverImage(book.getCoverImage())
+                    .categoryIds(new HashSet<>(row.categoryIds()))
+                    .build()));
+        }
+    }
+
+    private void reject(BookImportReportDto report, long line, String message) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getErrors().size() < maxReportedErrors) {
+            report.getErrors().add(new BookImportErrorDto(line, message));
+        }
+    }
+}
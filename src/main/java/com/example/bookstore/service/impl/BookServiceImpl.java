@@ -1,54 +1,128 @@
 package com.example.bookstore.service.impl;
 
+import com.example.bookstore.config.CacheConfig;
+import com.example.bookstore.dto.book.BookCursorPageDto;
 import com.example.bookstore.dto.book.BookDto;
 import com.example.bookstore.dto.book.BookDtoWithoutCategoryIds;
+import com.example.bookstore.dto.book.BookFacetedPageDto;
+import com.example.bookstore.dto.book.BookFacetsDto;
 import com.example.bookstore.dto.book.BookSearchParams;
 import com.example.bookstore.dto.book.CreateBookRequestDto;
+import com.example.bookstore.event.BookDeletedEvent;
+import com.example.bookstore.event.BookSavedEvent;
 import com.example.bookstore.exception.EntityNotFoundException;
+import com.example.bookstore.exception.InvalidCursorException;
+import com.example.bookstore.export.BookExportFormat;
+import com.example.bookstore.export.BookExportWriter;
+import com.example.bookstore.export.CsvBookExportWriter;
+import com.example.bookstore.export.NdjsonBookExportWriter;
 import com.example.bookstore.mapper.BookMapper;
 import com.example.bookstore.model.Book;
 import com.example.bookstore.model.Category;
+import com.example.bookstore.repository.AuthorRepository;
+import com.example.bookstore.repository.BookExportRepository;
 import com.example.bookstore.repository.BookRepository;
 import com.example.bookstore.repository.CategoryRepository;
+import com.example.bookstore.repository.keyset.KeysetCursorCodec;
 import com.example.bookstore.repository.specifications.BookSpecificationBuilder;
+import com.example.bookstore.search.BookFacetIndex;
+import com.example.bookstore.search.BookSearchIndex;
 import com.example.bookstore.service.BookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.transaction.Transactional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 @Service
 public class BookServiceImpl implements BookService {
+    private static final Map<String, Class<?>> CURSOR_SORT_KEYS = Map.of(
+            "id", Long.class,
+            "title", String.class,
+            "author", String.class,
+            "isbn", String.class,
+            "price", BigDecimal.class);
+    private static final Sort DEFAULT_CURSOR_SORT = Sort.by("id");
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
     private final BookSpecificationBuilder bookSpecificationBuilder;
     private final CategoryRepository categoryRepository;
+    private final AuthorRepository authorRepository;
+    private final KeysetCursorCodec keysetCursorCodec;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookFacetIndex bookFacetIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookExportRepository bookExportRepository;
+    private final ObjectMapper objectMapper;
+    @Value("${search.max-offset:1000}")
+    private int maxSearchOffset;
 
     @Autowired
     public BookServiceImpl(BookRepository bookRepository, BookMapper bookMapper,
             BookSpecificationBuilder bookSpecificationBuilder,
-                           CategoryRepository categoryRepository) {
+                           CategoryRepository categoryRepository,
+                           AuthorRepository authorRepository,
+                           KeysetCursorCodec keysetCursorCodec,
+                           BookSearchIndex bookSearchIndex,
+                           BookFacetIndex bookFacetIndex,
+                           ApplicationEventPublisher eventPublisher,
+                           BookExportRepository bookExportRepository,
+                           ObjectMapper objectMapper) {
         this.bookRepository = bookRepository;
         this.bookMapper = bookMapper;
         this.bookSpecificationBuilder = bookSpecificationBuilder;
         this.categoryRepository = categoryRepository;
+        this.authorRepository = authorRepository;
+        this.keysetCursorCodec = keysetCursorCodec;
+        this.bookSearchIndex = bookSearchIndex;
+        this.bookFacetIndex = bookFacetIndex;
+        this.eventPublisher = eventPublisher;
+        this.bookExportRepository = bookExportRepository;
+        this.objectMapper = objectMapper;
     }
 
+    @Transactional
     public BookDto save(CreateBookRequestDto product) {
-        Book save = bookRepository.save(bookMapper.toModel(product));
-        return bookMapper.toDto(save);
+        Book book = bookMapper.toModel(product);
+        book.setAuthorId(resolveAuthorId(product.getAuthor()));
+        Book save = bookRepository.save(book);
+        BookDto dto = bookMapper.toDto(save);
+        eventPublisher.publishEvent(new BookSavedEvent(dto));
+        return dto;
     }
 
+    @Transactional
     public List<BookDto> findAll(Pageable pageable) {
         return bookRepository.findAll(pageable).stream()
                 .map(bookMapper::toDto)
                 .toList();
     }
 
+    @Override
+    @Transactional
+    public BookCursorPageDto findAll(String cursor, Pageable pageable) {
+        return scroll(Specification.where(null), cursor, pageable);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.BOOKS_CACHE, key = "#id")
     public BookDto findById(Long id) {
         return bookRepository.findById(id)
                 .map(bookMapper::toDto)
@@ -56,20 +130,29 @@ public class BookServiceImpl implements BookService {
                         "Book with id " + id + " not found"));
     }
 
+    @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, key = "#id")
     public void deleteById(Long id) {
         bookRepository.deleteById(id);
+        eventPublisher.publishEvent(new BookDeletedEvent(id));
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, key = "#id")
     public BookDto update(Long id, CreateBookRequestDto requestDto) {
-        bookRepository.findById(id)
+        Book existing = bookRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Book with id " + id + " not found. Please check the book id."));
         Book book = bookMapper.toModel(requestDto);
         book.setId(id);
-        return bookMapper.toDto(bookRepository.save(book));
+        book.setVersion(existing.getVersion());
+        book.setAuthorId(resolveAuthorId(requestDto.getAuthor()));
+        BookDto dto = bookMapper.toDto(bookRepository.save(book));
+        eventPublisher.publishEvent(new BookSavedEvent(dto));
+        return dto;
     }
 
+    @Transactional
     public List<BookDto> search(BookSearchParams params, Pageable pageable) {
         Specification<Book> bookSpecification = bookSpecificationBuilder.build(params);
         return bookRepository.findAll(bookSpecification, pageable)
@@ -78,6 +161,43 @@ public class BookServiceImpl implements BookService {
                 .toList();
     }
 
+    @Override
+    @Transactional
+    public BookCursorPageDto search(BookSearchParams params, String cursor, Pageable pageable) {
+        return scroll(bookSpecificationBuilder.build(params), cursor, pageable);
+    }
+
+    @Override
+    @Transactional
+    public BookFacetedPageDto searchWithFacets(BookSearchParams params, Pageable pageable) {
+        List<BookDto> content = search(params, pageable);
+        BookFacetsDto facets = bookFacetIndex.count(params.getAuthors(),
+                params.getMinPrice(), params.getMaxPrice());
+        return new BookFacetedPageDto(content, facets);
+    }
+
+    @Override
+    @Transactional
+    public List<BookDto> fullTextSearch(String query, Pageable pageable) {
+        if (pageable.getOffset() > maxSearchOffset) {
+            return List.of();
+        }
+        int offset = (int) pageable.getOffset();
+        List<Long> rankedIds = bookSearchIndex.search(query,
+                offset + pageable.getPageSize());
+        if (rankedIds.size() <= offset) {
+            return List.of();
+        }
+        List<Long> pageIds = rankedIds.subList(offset, rankedIds.size());
+        Map<Long, Book> booksById = bookRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return pageIds.stream()
+                .map(booksById::get)
+                .filter(Objects::nonNull)
+                .map(bookMapper::toDto)
+                .toList();
+    }
+
     public List<BookDtoWithoutCategoryIds> findAllByCategoryId(Long id) {
         return bookRepository.findAllByCategoriesId(id).stream()
                 .map(bookMapper::toDtoWithoutCategories)
@@ -86,6 +206,7 @@ public class BookServiceImpl implements BookService {
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, key = "#bookId")
     public BookDto addBookToCategory(Long bookId, Long categoryId) {
         Book byId = bookRepository.findById(bookId)
                 .orElseThrow(() -> new EntityNotFoundException(
@@ -108,13 +229,56 @@ public class BookServiceImpl implements BookService {
                 .orElseThrow(() -> new EntityNotFoundException("Book not found after save"));
 
         BookDto dto = bookMapper.toDto(refreshedBook);
+        eventPublisher.publishEvent(new BookSavedEvent(dto));
         return dto;
     }
 
     @Override
-    public List<BookDto> findAllWithCategories() {
-        return bookRepository.findAllWithCategories().stream()
+    public void exportAll(BookExportFormat format, OutputStream out) throws IOException {
+        BookExportWriter writer = switch (format) {
+            case NDJSON -> new NdjsonBookExportWriter(out, objectMapper);
+            case CSV -> new CsvBookExportWriter(out);
+        };
+        try {
+            bookExportRepository.streamAll(book -> {
+                try {
+                    writer.write(book);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private Long resolveAuthorId(String name) {
+        return authorRepository.findIdByName(name).orElseGet(() -> {
+            authorRepository.insertIfAbsent(name);
+            return authorRepository.lastInsertId();
+        });
+    }
+
+    private BookCursorPageDto scroll(Specification<Book> specification,
+                                     String cursor, Pageable pageable) {
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : DEFAULT_CURSOR_SORT;
+        sort.forEach(order -> {
+            if (!CURSOR_SORT_KEYS.containsKey(order.getProperty())) {
+                throw new InvalidCursorException("Cursor pagination can't sort by "
+                        + order.getProperty() + ", use one of " + CURSOR_SORT_KEYS.keySet());
+            }
+        });
+        Window<Book> window = bookRepository.findBy(specification, query -> query
+                .sortBy(sort)
+                .limit(pageable.getPageSize())
+                .scroll(keysetCursorCodec.decode(cursor, sort, CURSOR_SORT_KEYS)));
+        List<BookDto> content = window.stream()
                 .map(bookMapper::toDto)
                 .toList();
+        String nextCursor = window.hasNext()
+                ? keysetCursorCodec.encode(window.positionAt(window.size() - 1))
+                : null;
+        return new BookCursorPageDto(content, nextCursor);
     }
 }
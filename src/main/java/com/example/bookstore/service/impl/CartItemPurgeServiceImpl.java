@@ -0,0 +1,137 @@
+package com.example.bookstore.service.impl;
+
+import com.example.bookstore.dto.cart.CartItemPurgeReportDto;
+import com.example.bookstore.repository.CartItemPurgeRepository;
+import com.example.bookstore.service.CartItemPurgeService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Purges cart lines in small id-ordered batches, one short transaction per batch, and
+ * sleeps between batches to stay under {@code cart.purge.max-rows-per-second}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CartItemPurgeServiceImpl implements CartItemPurgeService {
+    private static final String DELETED = "deleted";
+    private static final String ABANDONED = "abandoned";
+    private final CartItemPurgeRepository cartItemPurgeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    @Value("${cart.purge.enabled:true}")
+    private boolean enabled;
+    @Value("${cart.purge.archive:true}")
+    private boolean archive;
+    @Value("${cart.purge.batch-size:500}")
+    private int batchSize;
+    @Value("${cart.purge.max-rows-per-second:1000}")
+    private int maxRowsPerSecond;
+    @Value("${cart.purge.max-rows-per-run:100000}")
+    private long maxRowsPerRun;
+    @Value("${cart.purge.abandoned-after:P90D}")
+    private Duration abandonedAfter;
+
+    @Scheduled(initialDelayString = "${cart.purge.initial-delay:PT5M}",
+            fixedDelayString = "${cart.purge.interval:PT15M}")
+    public void scheduledPurge() {
+        if (enabled) {
+            CartItemPurgeReportDto report = purge();
+            log.info("Purged {} deleted and {} abandoned cart items", report.getDeletedLines(),
+                    report.getAbandonedLines());
+        }
+    }
+
+    @Override
+    public CartItemPurgeReportDto purge() {
+        CartItemPurgeReportDto report = new CartItemPurgeReportDto();
+        report.setArchived(archive);
+        report.setDeletedLines(purge(DELETED, maxRowsPerRun,
+                cartItemPurgeRepository::findDeletedIds,
+                cartItemPurgeRepository::lockDeleted));
+        LocalDateTime cutoff = LocalDateTime.now().minus(abandonedAfter);
+        report.setAbandonedLines(purge(ABANDONED, maxRowsPerRun - report.getDeletedLines(),
+                (afterId, limit) -> cartItemPurgeRepository.findAbandonedIds(cutoff, afterId,
+                        limit),
+                ids -> cartItemPurgeRepository.lockAbandoned(ids, cutoff)));
+        return report;
+    }
+
+    private long purge(String reason, long budget, CandidateFinder finder,
+                       Function<List<Long>, List<Long>> locker) {
+        Counter rows = Counter.builder("cart.purge.rows")
+                .description("Cart items removed by the purge job")
+                .tag("reason", reason)
+                .tag("action", archive ? "archived" : "deleted")
+                .register(meterRegistry);
+        Timer batches = Timer.builder("cart.purge.batch")
+                .tag("reason", reason)
+                .register(meterRegistry);
+        long purged = 0;
+        long afterId = 0;
+        while (purged < budget) {
+            long started = System.nanoTime();
+            List<Long> candidates = finder.find(afterId, (int) Math.min(batchSize,
+                    budget - purged));
+            if (candidates.isEmpty()) {
+                break;
+            }
+            afterId = candidates.get(candidates.size() - 1);
+            Integer count = transactionTemplate.execute(status -> {
+                List<Long> ids = locker.apply(candidates);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                if (archive) {
+                    cartItemPurgeRepository.archive(ids);
+                }
+                if (ABANDONED.equals(reason)) {
+                    cartItemPurgeRepository.incrementCartVersions(ids);
+                }
+                return cartItemPurgeRepository.delete(ids);
+            });
+            long elapsed = System.nanoTime() - started;
+            batches.record(elapsed, TimeUnit.NANOSECONDS);
+            purged += count;
+            rows.increment(count);
+            if (!throttle(candidates.size(), elapsed)) {
+                break;
+            }
+        }
+        return purged;
+    }
+
+    private boolean throttle(int batch, long elapsedNanos) {
+        if (maxRowsPerSecond <= 0) {
+            return true;
+        }
+        long pause = TimeUnit.SECONDS.toNanos(batch) / maxRowsPerSecond - elapsedNanos;
+        if (pause <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(pause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    private interface CandidateFinder {
+        List<Long> find(long afterId, int limit);
+    }
+}
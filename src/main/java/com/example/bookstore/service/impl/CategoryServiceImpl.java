@@ -1,15 +1,22 @@
 package com.example.bookstore.service.impl;
 
+import com.example.bookstore.config.CacheConfig;
 import com.example.bookstore.dto.category.CategoryDto;
 import com.example.bookstore.dto.category.CategoryRequestDto;
+import com.example.bookstore.dto.version.EntityVersionDto;
+import com.example.bookstore.event.CategoryDeletedEvent;
 import com.example.bookstore.exception.EntityNotFoundException;
 import com.example.bookstore.mapper.CategoryMapper;
 import com.example.bookstore.model.Category;
+import com.example.bookstore.repository.BookRepository;
 import com.example.bookstore.repository.CategoryRepository;
 import com.example.bookstore.service.CategoryService;
+import jakarta.transaction.Transactional;
 import java.util.List;
 import java.util.NoSuchElementException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
@@ -18,6 +25,8 @@ import org.springframework.stereotype.Service;
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository repository;
     private final CategoryMapper mapper;
+    private final BookRepository bookRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<CategoryDto> findAll(Pageable pageable) {
@@ -32,6 +41,12 @@ public class CategoryServiceImpl implements CategoryService {
                 new EntityNotFoundException("Category not found with id: " + id)));
     }
 
+    @Override
+    public EntityVersionDto findVersionById(Long id) {
+        return repository.findVersionById(id).orElseThrow(() ->
+                new EntityNotFoundException("Category not found with id: " + id));
+    }
+
     @Override
     public CategoryDto save(CategoryRequestDto categoryRequestDto) {
         return mapper.toDto(repository.save(mapper.toModel(categoryRequestDto)));
@@ -39,15 +54,20 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public CategoryDto update(Long id, CategoryRequestDto categoryRequestDto) {
-        repository.findById(id).orElseThrow(() ->
+        Category existing = repository.findById(id).orElseThrow(() ->
                 new NoSuchElementException("Category not found with id: " + id));
         Category model = mapper.toModel(categoryRequestDto);
         model.setId(id);
+        model.setVersion(existing.getVersion());
         return mapper.toDto(repository.save(model));
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, allEntries = true)
     public void deleteById(Long id) {
+        bookRepository.incrementVersionsByCategoryId(id);
         repository.deleteById(id);
+        eventPublisher.publishEvent(new CategoryDeletedEvent(id));
     }
 }
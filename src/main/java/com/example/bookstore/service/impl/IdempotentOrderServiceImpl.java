@@ -0,0 +1,185 @@
+package com.example.bookstore.service.impl;
+
+import com.example.bookstore.dto.order.OrderDto;
+import com.example.bookstore.dto.order.PostOrderRequestDto;
+import com.example.bookstore.exception.EntityNotFoundException;
+import com.example.bookstore.exception.IdempotencyKeyException;
+import com.example.bookstore.repository.OrderIdempotencyKeyRepository;
+import com.example.bookstore.service.IdempotentOrderService;
+import com.example.bookstore.service.OrderService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps placed orders by idempotency key in the order_idempotency_keys table, fronted by
+ * a bounded in-memory cache so replays skip the database. Duplicates arriving while the
+ * first attempt runs wait on it in memory; duplicates on other instances wait on the
+ * key's row lock.
+ */
+@Service
+public class IdempotentOrderServiceImpl implements IdempotentOrderService {
+    private static final int CLEANUP_BATCH_SIZE = 1000;
+    private final OrderService orderService;
+    private final OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LockFailureRetry lockFailureRetry;
+    private final ObjectMapper objectMapper;
+    private final Cache<RequestKey, StoredOrder> responses;
+    private final ConcurrentMap<RequestKey, CompletableFuture<StoredOrder>> inFlight =
+            new ConcurrentHashMap<>();
+    private final Duration waitTimeout;
+    private final Duration retention;
+
+    public IdempotentOrderServiceImpl(
+            OrderService orderService,
+            OrderIdempotencyKeyRepository orderIdempotencyKeyRepository,
+            TransactionTemplate transactionTemplate,
+            LockFailureRetry lockFailureRetry,
+            ObjectMapper objectMapper,
+            @Value("${order.idempotency.cache-size:10000}") long cacheSize,
+            @Value("${order.idempotency.cache-ttl:PT10M}") Duration cacheTtl,
+            @Value("${order.idempotency.wait-timeout:PT30S}") Duration waitTimeout,
+            @Value("${order.idempotency.retention:P1D}") Duration retention) {
+        this.orderService = orderService;
+        this.orderIdempotencyKeyRepository = orderIdempotencyKeyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.lockFailureRetry = lockFailureRetry;
+        this.objectMapper = objectMapper;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+        this.waitTimeout = waitTimeout;
+        this.retention = retention;
+    }
+
+    @Override
+    public OrderDto placeOrder(Authentication authentication, String idempotencyKey,
+                               PostOrderRequestDto dto) {
+        RequestKey key = new RequestKey(authentication.getName(), sha256(idempotencyKey));
+        String requestHash = sha256(write(dto));
+        StoredOrder stored = responses.getIfPresent(key);
+        if (stored == null) {
+            stored = placeOnce(authentication, key, requestHash, dto);
+        }
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyException(
+                    "Idempotency-Key was already used with a different request");
+        }
+        return stored.order();
+    }
+
+    @Scheduled(initialDelayString = "${order.idempotency.cleanup-interval:PT1H}",
+            fixedDelayString = "${order.idempotency.cleanup-interval:PT1H}")
+    public void deleteExpiredKeys() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int deleted;
+        do {
+            deleted = orderIdempotencyKeyRepository.deleteCreatedBefore(cutoff,
+                    CLEANUP_BATCH_SIZE);
+        } while (deleted == CLEANUP_BATCH_SIZE);
+    }
+
+    private StoredOrder placeOnce(Authentication authentication, RequestKey key,
+                                  String requestHash, PostOrderRequestDto dto) {
+        CompletableFuture<StoredOrder> attempt = new CompletableFuture<>();
+        CompletableFuture<StoredOrder> running = inFlight.putIfAbsent(key, attempt);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            StoredOrder stored = lockFailureRetry.execute(() -> transactionTemplate.execute(
+                    status -> claimAndPlace(authentication, key, requestHash, dto)));
+            responses.put(key, stored);
+            attempt.complete(stored);
+            return stored;
+        } catch (RuntimeException e) {
+            attempt.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, attempt);
+        }
+    }
+
+    private StoredOrder claimAndPlace(Authentication authentication, RequestKey key,
+                                      String requestHash, PostOrderRequestDto dto) {
+        if (!orderIdempotencyKeyRepository.claim(key.email(), key.keyHash(), requestHash)) {
+            return orderIdempotencyKeyRepository.findForShare(key.email(), key.keyHash())
+                    .map(row -> new StoredOrder(row.requestHash(), read(row.response())))
+                    .orElseThrow(() -> new EntityNotFoundException(
+                            "User with email " + key.email() + " not found"));
+        }
+        OrderDto order = orderService.placeOrder(authentication, dto);
+        orderIdempotencyKeyRepository.complete(key.email(), key.keyHash(), order.getId(),
+                write(order));
+        return new StoredOrder(requestHash, order);
+    }
+
+    private StoredOrder await(CompletableFuture<StoredOrder> running) {
+        try {
+            return running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyException(
+                    "An order with this Idempotency-Key is still being placed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyException(
+                    "Interrupted while waiting for the order with this Idempotency-Key");
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't serialize " + value, e);
+        }
+    }
+
+    private OrderDto read(String response) {
+        try {
+            return objectMapper.readValue(response, OrderDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't read stored order " + response, e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record RequestKey(String email, String keyHash) {
+    }
+
+    private record StoredOrder(String requestHash, OrderDto order) {
+    }
+}
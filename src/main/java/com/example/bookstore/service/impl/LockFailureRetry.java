@@ -0,0 +1,42 @@
+package com.example.bookstore.service.impl;
+
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs a transaction again when MySQL rolled it back as a deadlock victim or after a lock
+ * wait timeout. Checkouts of a nearly sold-out title can deadlock on its stock stripes;
+ * the rollback undoes everything, so starting over is safe. Inside an outer transaction
+ * the work runs once and the outer caller decides, since the rollback ended that
+ * transaction too.
+ */
+@Slf4j
+@Component
+public class LockFailureRetry {
+    private final int maxAttempts;
+
+    public LockFailureRetry(@Value("${order.checkout.max-attempts:3}") int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public <T> T execute(Supplier<T> transaction) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return transaction.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction.get();
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Lock conflict on attempt {}, running the transaction again",
+                        attempt, e);
+            }
+        }
+    }
+}
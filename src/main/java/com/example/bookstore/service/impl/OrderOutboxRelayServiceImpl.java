@@ -0,0 +1,115 @@
+package com.example.bookstore.service.impl;
+
+import com.example.bookstore.outbox.OrderEvent;
+import com.example.bookstore.outbox.OrderEventSink;
+import com.example.bookstore.repository.OrderOutboxRepository;
+import com.example.bookstore.service.OrderOutboxRelayService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Drains the order outbox. Each batch is locked, handed to the sink and deleted in one
+ * transaction, so a crash or a sink failure in between only causes a redelivery. Runs at
+ * READ COMMITTED so locking the tail of the outbox takes no gap locks and never blocks
+ * checkouts appending new events while the sink is busy.
+ */
+@Slf4j
+@Service
+public class OrderOutboxRelayServiceImpl implements OrderOutboxRelayService {
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final OrderEventSink orderEventSink;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxEventsPerRun;
+    private final Counter delivered;
+    private final Counter failures;
+    private final Timer batches;
+    private final Timer lag;
+
+    public OrderOutboxRelayServiceImpl(
+            OrderOutboxRepository orderOutboxRepository, OrderEventSink orderEventSink,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${order.outbox.enabled:true}") boolean enabled,
+            @Value("${order.outbox.batch-size:500}") int batchSize,
+            @Value("${order.outbox.max-events-per-run:100000}") long maxEventsPerRun) {
+        this.orderOutboxRepository = orderOutboxRepository;
+        this.orderEventSink = orderEventSink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(
+                TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxEventsPerRun = maxEventsPerRun;
+        this.delivered = Counter.builder("order.outbox.delivered")
+                .description("Order events handed to the sink")
+                .register(meterRegistry);
+        this.failures = Counter.builder("order.outbox.failures")
+                .register(meterRegistry);
+        this.batches = Timer.builder("order.outbox.batch")
+                .register(meterRegistry);
+        this.lag = Timer.builder("order.outbox.lag")
+                .description("Time from writing an event to delivering it")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${order.outbox.initial-delay:PT10S}",
+            fixedDelayString = "${order.outbox.interval:PT1S}")
+    public void scheduledRelay() {
+        if (enabled) {
+            relay();
+        }
+    }
+
+    @Override
+    public long relay() {
+        long relayed = 0;
+        while (relayed < maxEventsPerRun) {
+            int limit = (int) Math.min(batchSize, maxEventsPerRun - relayed);
+            Integer count;
+            try {
+                count = batches.record(() -> transactionTemplate.execute(status ->
+                        deliverBatch(limit)));
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("Order event delivery failed, retrying on the next run", e);
+                break;
+            }
+            relayed += count;
+            if (count < limit) {
+                break;
+            }
+        }
+        return relayed;
+    }
+
+    private int deliverBatch(int limit) {
+        List<OrderEvent> events = orderOutboxRepository.lockOldest(limit);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        try {
+            orderEventSink.publish(events);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        orderOutboxRepository.delete(events.stream().map(OrderEvent::id).toList());
+        LocalDateTime now = LocalDateTime.now();
+        events.forEach(event -> lag.record(Duration.between(event.createdAt(), now)));
+        delivered.increment(events.size());
+        return events.size();
+    }
+}
@@ -1,71 +1,181 @@
 package com.example.bookstore.service.impl;
 
-import com.example.bookstore.config.DateTimeConfig;
+import com.example.bookstore.dto.cart.CartLineDto;
 import com.example.bookstore.dto.order.OrderDto;
 import com.example.bookstore.dto.order.OrderItemDto;
+import com.example.bookstore.dto.order.OrderSummaryDto;
+import com.example.bookstore.dto.order.OrderSummaryPageDto;
 import com.example.bookstore.dto.order.PostOrderRequestDto;
 import com.example.bookstore.dto.order.PutOrderRequest;
 import com.example.bookstore.exception.EntityNotFoundException;
+import com.example.bookstore.exception.IllegalStatusTransitionException;
+import com.example.bookstore.exception.InvalidOrderRequestException;
 import com.example.bookstore.mapper.OrderItemMapper;
 import com.example.bookstore.mapper.OrderMapper;
-import com.example.bookstore.model.Book;
-import com.example.bookstore.model.CartItem;
 import com.example.bookstore.model.Order;
 import com.example.bookstore.model.OrderItem;
-import com.example.bookstore.model.ShoppingCart;
 import com.example.bookstore.model.User;
+import com.example.bookstore.outbox.OrderOutbox;
+import com.example.bookstore.repository.BookRepository;
 import com.example.bookstore.repository.CartItemRepository;
+import com.example.bookstore.repository.OrderItemBatchRepository;
 import com.example.bookstore.repository.OrderItemRepository;
 import com.example.bookstore.repository.OrderRepository;
 import com.example.bookstore.repository.ShoppingCartRepository;
 import com.example.bookstore.repository.UserRepository;
+import com.example.bookstore.repository.keyset.KeysetCursorCodec;
 import com.example.bookstore.service.OrderService;
+import com.example.bookstore.service.StockService;
+import jakarta.transaction.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @AllArgsConstructor
 public class OrderServiceImpl implements OrderService {
+    private static final String ORDER_DATE = "orderDate";
+    private static final String ID = "id";
+    private static final Sort SUMMARY_SORT = Sort.by(Sort.Direction.DESC, ORDER_DATE, ID);
+    private static final Map<String, Class<?>> SUMMARY_CURSOR_KEYS =
+            Map.of(ORDER_DATE, LocalDateTime.class, ID, Long.class);
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
     private final UserRepository userRepository;
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
+    private final OrderItemBatchRepository orderItemBatchRepository;
+    private final BookRepository bookRepository;
     private final ShoppingCartRepository shoppingCartRepository;
     private final CartItemRepository cartItemRepository;
     private final OrderMapper orderMapper;
     private final OrderItemMapper orderItemMapper;
+    private final KeysetCursorCodec keysetCursorCodec;
+    private final StockService stockService;
+    private final OrderOutbox orderOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final LockFailureRetry lockFailureRetry;
 
+    /**
+     * Runs checkout in its own transaction, started again if it loses a deadlock on the
+     * stock stripes, or joins the caller's transaction.
+     */
     @Override
     public OrderDto placeOrder(Authentication authentication, PostOrderRequestDto dto) {
-        User user = getCurrentUser(authentication);
-        ShoppingCart shoppingCart = getCurrentShoppingCart(user.getId());
-        Order order = createOrder(user, shoppingCart, dto);
-        cartItemRepository.deleteAll(shoppingCart.getCartItems());
-        return orderMapper.toDto(order, orderItemMapper);
+        return lockFailureRetry.execute(() -> transactionTemplate.execute(status -> {
+            Order order = newOrder(dto);
+            order.setOrderItems(checkout(authentication.getName(), order));
+            OrderDto placed = orderMapper.toDto(order, orderItemMapper);
+            orderOutbox.orderPlaced(placed);
+            return placed;
+        }));
+    }
+
+    @Override
+    @Transactional
+    public OrderDto acceptOrder(Authentication authentication, PostOrderRequestDto dto) {
+        if (!cartItemRepository.existsByShoppingCartUserEmail(authentication.getName())) {
+            throw new InvalidOrderRequestException("Shopping cart of user "
+                    + authentication.getName() + " is empty");
+        }
+        Order order = newOrder(dto);
+        order.setUser(getCurrentUser(authentication));
+        order.setStatus(Order.Status.PENDING);
+        order.setTotal(BigDecimal.ZERO);
+        return orderMapper.toDto(orderRepository.save(order), orderItemMapper);
     }
 
     @Override
-    public List<OrderDto> getAll(Authentication authentication, Pageable pageable) {
+    public void processAcceptedOrder(Long orderId) {
+        lockFailureRetry.execute(() -> transactionTemplate.execute(status -> {
+            Order order = orderRepository.findById(orderId).orElseThrow(() ->
+                    new EntityNotFoundException("Can't find order by this id: " + orderId));
+            if (order.getStatus() != Order.Status.PENDING) {
+                return null;
+            }
+            order.setOrderItems(checkout(order.getUser().getEmail(), order));
+            order.setStatus(Order.Status.PROCESSED);
+            orderRepository.saveAndFlush(order);
+            orderOutbox.orderPlaced(orderMapper.toDto(order, orderItemMapper));
+            return null;
+        }));
+    }
+
+    @Override
+    @Transactional
+    public void cancelAcceptedOrder(Long orderId) {
+        orderRepository.findById(orderId)
+                .filter(order -> order.getStatus() == Order.Status.PENDING)
+                .ifPresent(order -> {
+                    order.setStatus(Order.Status.CANCELED);
+                    orderOutbox.statusChanged(orderId, Order.Status.PENDING,
+                            Order.Status.CANCELED);
+                });
+    }
+
+    @Override
+    public List<OrderDto> getAll(Authentication authentication, LocalDateTime from,
+                                 LocalDateTime to, Pageable pageable) {
         User user = getCurrentUser(authentication);
-        return orderRepository.findAllByUserId(user.getId(), pageable).stream()
+        Page<Order> orders = from == null && to == null
+                ? orderRepository.findAllByUserId(user.getId(), pageable)
+                : orderRepository.findAllByUserIdInDateRange(user.getId(),
+                        from == null ? EARLIEST : from, to == null ? LATEST : to, pageable);
+        return orders.stream()
                 .map(order -> orderMapper.toDto(order, orderItemMapper))
                 .toList();
     }
 
+    @Override
+    public OrderSummaryPageDto getSummaries(Authentication authentication, String cursor,
+                                            Pageable pageable) {
+        String email = authentication.getName();
+        Map<String, Object> after = keysetCursorCodec.decode(cursor, SUMMARY_SORT,
+                SUMMARY_CURSOR_KEYS).getKeys();
+        Pageable limit = PageRequest.of(0, pageable.getPageSize() + 1);
+        List<OrderSummaryDto> summaries = after.isEmpty()
+                ? orderRepository.findSummaries(email, limit)
+                : orderRepository.findSummariesAfter(email,
+                        (LocalDateTime) after.get(ORDER_DATE),
+                        (Long) after.get(ID), limit);
+        if (summaries.size() <= pageable.getPageSize()) {
+            return new OrderSummaryPageDto(summaries, null);
+        }
+        List<OrderSummaryDto> content = List.copyOf(
+                summaries.subList(0, pageable.getPageSize()));
+        OrderSummaryDto last = content.get(content.size() - 1);
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(ORDER_DATE, last.getOrderDate());
+        keys.put(ID, last.getId());
+        return new OrderSummaryPageDto(content,
+                keysetCursorCodec.encode(ScrollPosition.forward(keys)));
+    }
+
     @Override
     public List<OrderItemDto> getAllOrderItems(Authentication authentication,
                                                Long orderId, Pageable pageable) {
         User user = getCurrentUser(authentication);
-        Order order = getOrder(orderId, user.getId());
-        return order.getOrderItems().stream()
-                .map(orderItemMapper::toDto)
-                .toList();
+        List<OrderItemDto> items = orderItemRepository.findOrderItems(orderId, user.getId(),
+                sortedById(pageable));
+        if (items.isEmpty() && !orderRepository.existsByIdAndUserId(orderId, user.getId())) {
+            throw new EntityNotFoundException("Can't find order by this id: " + orderId);
+        }
+        return items;
     }
 
     @Override
@@ -74,50 +184,108 @@ public class OrderServiceImpl implements OrderService {
         return orderMapper.toDto(getOrder(orderId, user.getId()), orderItemMapper);
     }
 
+    /**
+     * Applies a transition allowed by {@link Order.Status#canMoveTo}, returning the stock of
+     * an order when it is canceled; setting the current status again changes nothing. The
+     * order row is flushed before the outbox event is written, so concurrent updates of
+     * one order are numbered in the order they commit.
+     */
     @Override
+    @Transactional
     public OrderDto updateStatus(Authentication authentication,
                                  Long orderId, PutOrderRequest dto) {
         User user = getCurrentUser(authentication);
         Order order = getOrder(orderId, user.getId());
         Order.Status status = Order.Status.valueOf(dto.getStatus().toUpperCase());
+        Order.Status previous = order.getStatus();
+        if (status == previous) {
+            return orderMapper.toDto(order, orderItemMapper);
+        }
+        if (!previous.canMoveTo(status)) {
+            throw new IllegalStatusTransitionException("Order " + orderId
+                    + " can't move from " + previous + " to " + status);
+        }
+        if (status == Order.Status.CANCELED) {
+            stockService.release(order.getOrderItems().stream()
+                    .filter(item -> item.getReservedQuantity() > 0)
+                    .collect(Collectors.toMap(item -> item.getBook().getId(),
+                            OrderItem::getReservedQuantity, Integer::sum)));
+        }
         order.setStatus(status);
-        return orderMapper.toDto(orderRepository.save(order), orderItemMapper);
+        Order saved = orderRepository.saveAndFlush(order);
+        orderOutbox.statusChanged(orderId, previous, status);
+        return orderMapper.toDto(saved, orderItemMapper);
     }
 
     @Override
     public OrderItemDto getOrderItemBy(Authentication authentication,
                                        Long orderId, Long orderItemId) {
         User user = getCurrentUser(authentication);
-        List<OrderItemDto> allOrderItems = getAllOrderItems(authentication,
-                orderId, Pageable.unpaged());
-        return allOrderItems.stream()
-                .filter(item -> item != null && item.getId().equals(orderItemId))
-                .findFirst().orElseThrow(() ->
+        return orderItemRepository.findOrderItem(orderItemId, orderId, user.getId())
+                .orElseThrow(() ->
                         new EntityNotFoundException("Can't find item with id: " + orderItemId));
     }
 
-    private Order createOrder(User user, ShoppingCart shoppingCart,
-                              PostOrderRequestDto dto) {
+    private Pageable sortedById(Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getSort().isSorted()) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(ID));
+    }
+
+    private Order newOrder(PostOrderRequestDto dto) {
         Order order = new Order();
-        order.setUser(user);
         order.setStatus(Order.Status.NEW);
-        order.setTotal(countTotal(shoppingCart));
         order.setShippingAddress(dto.getShippingAddress());
-        order.setOrderDate(LocalDateTime.now().format(DateTimeConfig.format));
-        orderRepository.save(order);
-        order.setOrderItems(getOrderItems(shoppingCart, order));
+        order.setOrderDate(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
         return order;
     }
 
-    private Set<OrderItem> getOrderItems(ShoppingCart shoppingCart, Order order) {
+    /**
+     * Checks the user's cart out into the order: the cart row is locked by its version
+     * bump, lines are read with one projection, stock is reserved, order items go in as
+     * one JDBC batch and the ordered lines are soft-deleted with one UPDATE.
+     */
+    private Set<OrderItem> checkout(String email, Order order) {
+        if (shoppingCartRepository.incrementVersionByUserEmail(email) == 0) {
+            throw new EntityNotFoundException("Can't find shopping cart of user: " + email);
+        }
+        List<CartLineDto> cartLines = shoppingCartRepository.findCartLinesByUserEmail(email);
+        List<CartLineDto> lines = cartLines.stream()
+                .filter(line -> line.getItemId() != null)
+                .toList();
+        if (lines.isEmpty()) {
+            throw new InvalidOrderRequestException("Shopping cart of user " + email
+                    + " is empty");
+        }
+        final Set<Long> reservedBookIds = stockService.reserve(lines.stream()
+                .collect(Collectors.toMap(CartLineDto::getBookId, CartLineDto::getQuantity)));
+        if (order.getUser() == null) {
+            order.setUser(userRepository.getReferenceById(cartLines.get(0).getUserId()));
+        }
+        order.setTotal(countTotal(lines));
+        orderRepository.save(order);
+        List<Long> ids = orderItemBatchRepository.insertOrderItems(order.getId(), lines,
+                reservedBookIds);
+        cartItemRepository.softDeleteAllById(lines.stream()
+                .map(CartLineDto::getItemId)
+                .toList());
+        return toOrderItems(order, lines, ids, reservedBookIds);
+    }
+
+    private Set<OrderItem> toOrderItems(Order order, List<CartLineDto> lines,
+                                        List<Long> ids, Set<Long> reservedBookIds) {
         Set<OrderItem> orderItems = new HashSet<>();
-        for (CartItem cartItem : shoppingCart.getCartItems()) {
+        for (int i = 0; i < lines.size(); i++) {
+            CartLineDto line = lines.get(i);
             OrderItem orderItem = new OrderItem();
+            orderItem.setId(ids.get(i));
             orderItem.setOrder(order);
-            orderItem.setQuantity(cartItem.getQuantity());
-            orderItem.setPrice(cartItem.getBook().getPrice());
-            orderItem.setBook(cartItem.getBook());
-            orderItemRepository.save(orderItem);
+            orderItem.setBook(bookRepository.getReferenceById(line.getBookId()));
+            orderItem.setQuantity(line.getQuantity());
+            orderItem.setPrice(line.getPrice());
+            orderItem.setReservedQuantity(reservedBookIds.contains(line.getBookId())
+                    ? line.getQuantity() : 0);
             orderItems.add(orderItem);
         }
         return orderItems;
@@ -129,23 +297,15 @@ public class OrderServiceImpl implements OrderService {
                 () -> new EntityNotFoundException("User with email " + email + " not found"));
     }
 
-    private ShoppingCart getCurrentShoppingCart(Long id) {
-        return shoppingCartRepository.findByUserId(id).orElseThrow(() ->
-                new EntityNotFoundException("Can't find shopping cart with id: " + id));
-    }
-
     private Order getOrder(Long orderId, Long userId) {
         return orderRepository.findByIdAndUserId(orderId, userId).orElseThrow(() ->
                 new EntityNotFoundException("Can't find order by this id: " + orderId));
     }
 
-    private BigDecimal countTotal(ShoppingCart shoppingCart) {
+    private BigDecimal countTotal(List<CartLineDto> lines) {
         BigDecimal total = BigDecimal.ZERO;
-        for (CartItem cartItem : shoppingCart.getCartItems()) {
-            Book book = cartItem.getBook();
-            BigDecimal cartItemPrice = book.getPrice()
-                    .multiply(BigDecimal.valueOf(cartItem.getQuantity()));
-            total = total.add(cartItemPrice);
+        for (CartLineDto line : lines) {
+            total = total.add(line.getPrice().multiply(BigDecimal.valueOf(line.getQuantity())));
         }
         return total;
     }
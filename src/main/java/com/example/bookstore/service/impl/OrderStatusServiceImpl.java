@@ -0,0 +1,82 @@
+package com.example.bookstore.service.impl;
+
+import com.example.bookstore.dto.order.BulkOrderStatusRequestDto;
+import com.example.bookstore.dto.order.BulkOrderStatusResultDto;
+import com.example.bookstore.dto.order.OrderStatusRejectionDto;
+import com.example.bookstore.exception.IllegalStatusTransitionException;
+import com.example.bookstore.exception.InvalidOrderRequestException;
+import com.example.bookstore.model.Order;
+import com.example.bookstore.outbox.OrderOutbox;
+import com.example.bookstore.repository.OrderStatusRepository;
+import com.example.bookstore.service.OrderStatusService;
+import com.example.bookstore.service.StockService;
+import jakarta.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bulk status changes: the selected orders are locked in id order, checked against
+ * {@link Order.Status#canMoveTo}, and the legal ones change with a single UPDATE, a single
+ * batch of outbox events and, for cancellations, one stock release per book.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderStatusServiceImpl implements OrderStatusService {
+    private final OrderStatusRepository orderStatusRepository;
+    private final StockService stockService;
+    private final OrderOutbox orderOutbox;
+    @Value("${order.bulk.max-orders:10000}")
+    private int maxOrders;
+
+    @Override
+    @Transactional
+    public BulkOrderStatusResultDto updateStatuses(BulkOrderStatusRequestDto request) {
+        Order.Status to = request.getStatus();
+        List<OrderStatusRejectionDto> rejected = new ArrayList<>();
+        Map<Long, Order.Status> locked;
+        if (request.getFromStatus() != null) {
+            if (!request.getFromStatus().canMoveTo(to)) {
+                throw new IllegalStatusTransitionException("Orders can't move from "
+                        + request.getFromStatus() + " to " + to);
+            }
+            int limit = request.getLimit() == null
+                    ? maxOrders : Math.min(request.getLimit(), maxOrders);
+            locked = orderStatusRepository.lockByStatus(request.getFromStatus(),
+                    request.getUserId(), limit);
+        } else {
+            if (request.getIds().size() > maxOrders) {
+                throw new InvalidOrderRequestException("At most " + maxOrders
+                        + " orders can change status at once");
+            }
+            locked = orderStatusRepository.lockByIds(request.getIds());
+            request.getIds().stream()
+                    .filter(id -> !locked.containsKey(id))
+                    .forEach(id -> rejected.add(
+                            new OrderStatusRejectionDto(id, null, "not found")));
+        }
+        Map<Long, Order.Status> moving = new LinkedHashMap<>();
+        locked.forEach((id, status) -> {
+            if (status.canMoveTo(to)) {
+                moving.put(id, status);
+            } else {
+                rejected.add(new OrderStatusRejectionDto(id, status, status == to
+                        ? "already " + to : "can't move from " + status + " to " + to));
+            }
+        });
+        if (!moving.isEmpty()) {
+            if (to == Order.Status.CANCELED) {
+                stockService.release(orderStatusRepository.sumQuantities(moving.keySet()));
+            }
+            orderStatusRepository.updateStatus(moving.keySet(), to);
+            orderOutbox.statusChanged(moving, to);
+        }
+        rejected.sort(Comparator.comparing(OrderStatusRejectionDto::id));
+        return new BulkOrderStatusResultDto(moving.size(), rejected);
+    }
+}
@@ -1,20 +1,34 @@
 package com.example.bookstore.service.impl;
 
 import com.example.bookstore.dto.cart.AddItemToCartRequest;
+import com.example.bookstore.dto.cart.CartDeltaDto;
+import com.example.bookstore.dto.cart.CartItemKey;
+import com.example.bookstore.dto.cart.CartLineDto;
+import com.example.bookstore.dto.cart.CartOperation;
 import com.example.bookstore.dto.cart.ShoppingCartDto;
+import com.example.bookstore.dto.cart.UpdateCartRequest;
 import com.example.bookstore.dto.cart.UpdateItemRequest;
 import com.example.bookstore.exception.EntityNotFoundException;
 import com.example.bookstore.mapper.CartItemMapper;
 import com.example.bookstore.mapper.ShoppingCartMapper;
-import com.example.bookstore.model.Book;
-import com.example.bookstore.model.CartItem;
 import com.example.bookstore.model.ShoppingCart;
 import com.example.bookstore.model.User;
 import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.CartItemBatchRepository;
 import com.example.bookstore.repository.CartItemRepository;
 import com.example.bookstore.repository.ShoppingCartRepository;
 import com.example.bookstore.repository.UserRepository;
 import com.example.bookstore.service.ShoppingCartService;
+import jakarta.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
@@ -28,47 +42,107 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
     private final CartItemRepository cartItemRepository;
     private final ShoppingCartMapper shoppingCartMapper;
     private final CartItemMapper cartItemMapper;
+    private final CartItemBatchRepository cartItemBatchRepository;
 
     @Override
-    public ShoppingCartDto addToCart(Authentication authentication, AddItemToCartRequest dto) {
+    @Transactional
+    public CartDeltaDto addToCart(Authentication authentication, AddItemToCartRequest dto) {
         User user = getCurrentUser(authentication);
-        ShoppingCart shoppingCart = shoppingCartRepository.findByUserId(user.getId())
-                .orElseGet(() -> {
-                    ShoppingCart newShoppingCart = new ShoppingCart();
-                    newShoppingCart.setUser(user);
-                    shoppingCartRepository.save(newShoppingCart);
-                    return newShoppingCart;
-                });
+        ShoppingCart shoppingCart = getOrCreateShoppingCart(user);
+        if (!bookRepository.existsById(dto.getBookId())) {
+            throw new EntityNotFoundException("Can't find book by id: " + dto.getBookId());
+        }
+        shoppingCartRepository.incrementVersion(shoppingCart.getId());
+        cartItemRepository.addQuantity(shoppingCart.getId(), dto.getBookId(), dto.getQuantity());
+        return toDelta(shoppingCart.getId(), Set.of(dto.getBookId()), Set.of());
+    }
 
-        CartItem cartItem = createCartItem(dto, shoppingCart);
-        shoppingCart.getCartItems().add(cartItem);
-        return shoppingCartMapper.toDto(shoppingCart, cartItemMapper);
+    @Override
+    @Transactional
+    public CartDeltaDto updateCart(Authentication authentication, UpdateCartRequest request) {
+        User user = getCurrentUser(authentication);
+        final ShoppingCart shoppingCart = getOrCreateShoppingCart(user);
+        Map<Long, LineChange> changes = new LinkedHashMap<>();
+        for (CartOperation operation : request.getOperations()) {
+            changes.merge(operation.getBookId(), LineChange.of(operation), LineChange::then);
+        }
+        Map<Long, Integer> added = new LinkedHashMap<>();
+        Map<Long, Integer> set = new LinkedHashMap<>();
+        List<Long> removed = new ArrayList<>();
+        changes.forEach((bookId, change) -> {
+            if (!change.absolute()) {
+                if (change.quantity() > 0) {
+                    added.put(bookId, change.quantity());
+                }
+            } else if (change.quantity() == 0) {
+                removed.add(bookId);
+            } else {
+                set.put(bookId, change.quantity());
+            }
+        });
+        Set<Long> bookIds = new HashSet<>(added.keySet());
+        bookIds.addAll(set.keySet());
+        if (!bookIds.isEmpty()) {
+            Set<Long> unknownBookIds = new HashSet<>(bookIds);
+            unknownBookIds.removeAll(bookRepository.findExistingIds(bookIds));
+            if (!unknownBookIds.isEmpty()) {
+                throw new EntityNotFoundException("Can't find books by ids: " + unknownBookIds);
+            }
+        }
+        shoppingCartRepository.incrementVersion(shoppingCart.getId());
+        cartItemBatchRepository.addQuantities(shoppingCart.getId(), added);
+        cartItemBatchRepository.setQuantities(shoppingCart.getId(), set);
+        cartItemBatchRepository.removeBooks(shoppingCart.getId(), removed);
+        return toDelta(shoppingCart.getId(), bookIds, removed);
     }
 
     @Override
     public ShoppingCartDto getByUser(Authentication authentication) {
-        User user = getCurrentUser(authentication);
-        return shoppingCartMapper.toDto(getShoppingCart(user), cartItemMapper);
+        String email = authentication.getName();
+        List<CartLineDto> cartLines = shoppingCartRepository.findCartLinesByUserEmail(email);
+        if (cartLines.isEmpty()) {
+            throw new EntityNotFoundException("Can't find Shopping cart of user " + email);
+        }
+        return shoppingCartMapper.toDto(cartLines, cartItemMapper);
     }
 
     @Override
-    public ShoppingCartDto updateCartItem(Authentication authentication,
-                                          Long itemId, UpdateItemRequest dto) {
-        CartItem cartItem = cartItemRepository.findById(itemId).orElseThrow(() ->
-                new EntityNotFoundException("Can't find cartItem by id: " + itemId));
-        cartItem.setQuantity(dto.getQuantity());
-        cartItemRepository.save(cartItem);
-        User user = getCurrentUser(authentication);
-        ShoppingCart shoppingCart = getShoppingCart(user);
-        return shoppingCartMapper.toDto(shoppingCart, cartItemMapper);
+    public Long findVersion(Authentication authentication) {
+        String email = authentication.getName();
+        return shoppingCartRepository.findVersionByUserEmail(email).orElseThrow(() ->
+                new EntityNotFoundException("Can't find Shopping cart of user " + email));
     }
 
     @Override
-    public ShoppingCartDto deleteCartItem(Long itemId, Authentication authentication) {
-        cartItemRepository.deleteById(itemId);
-        User user = getCurrentUser(authentication);
-        ShoppingCart shoppingCart = getShoppingCart(user);
-        return shoppingCartMapper.toDto(shoppingCart, cartItemMapper);
+    @Transactional
+    public CartDeltaDto updateCartItem(Authentication authentication,
+                                       Long itemId, UpdateItemRequest dto) {
+        if (cartItemRepository.updateQuantityOfUserItem(itemId, authentication.getName(),
+                dto.getQuantity()) == 0) {
+            throw new EntityNotFoundException("Can't find cartItem by id: " + itemId);
+        }
+        CartLineDto cartLine = shoppingCartRepository.findCartLineByItemId(itemId).orElseThrow();
+        CartDeltaDto delta = new CartDeltaDto();
+        delta.setShoppingCartId(cartLine.getShoppingCartId());
+        delta.setVersion(cartLine.getVersion());
+        delta.setChangedItems(Set.of(cartItemMapper.toDto(cartLine)));
+        delta.setRemovedBookIds(Set.of());
+        return delta;
+    }
+
+    @Override
+    @Transactional
+    public CartDeltaDto deleteCartItem(Long itemId, Authentication authentication) {
+        if (cartItemRepository.deleteUserItem(itemId, authentication.getName()) == 0) {
+            throw new EntityNotFoundException("Can't find cartItem by id: " + itemId);
+        }
+        CartItemKey cartItemKey = cartItemRepository.findKeyById(itemId).orElseThrow();
+        CartDeltaDto delta = new CartDeltaDto();
+        delta.setShoppingCartId(cartItemKey.getShoppingCartId());
+        delta.setVersion(cartItemKey.getVersion());
+        delta.setChangedItems(Set.of());
+        delta.setRemovedBookIds(Set.of(cartItemKey.getBookId()));
+        return delta;
     }
 
     private User getCurrentUser(Authentication authentication) {
@@ -77,18 +151,49 @@ public class ShoppingCartServiceImpl implements ShoppingCartService {
                 () -> new EntityNotFoundException("User with email " + email + " not found"));
     }
 
-    private ShoppingCart getShoppingCart(User user) {
-        return shoppingCartRepository.findByUserId(user.getId()).orElseThrow(() ->
-                new EntityNotFoundException("Can't find Shopping cart by id: " + user.getId()));
+    private ShoppingCart getOrCreateShoppingCart(User user) {
+        return shoppingCartRepository.findByUserId(user.getId())
+                .orElseGet(() -> {
+                    ShoppingCart newShoppingCart = new ShoppingCart();
+                    newShoppingCart.setUser(user);
+                    shoppingCartRepository.save(newShoppingCart);
+                    return newShoppingCart;
+                });
     }
 
-    private CartItem createCartItem(AddItemToCartRequest dto, ShoppingCart shoppingCart) {
-        Book book = bookRepository.findById(dto.getBookId()).orElseThrow(() ->
-                new EntityNotFoundException("Can't find book by id: " + dto.getBookId()));
-        CartItem cartItem = new CartItem();
-        cartItem.setBook(book);
-        cartItem.setQuantity(dto.getQuantity());
-        cartItem.setShoppingCart(shoppingCart);
-        return cartItemRepository.save(cartItem);
+    /**
+     * Reads back the version the caller's bump gave the cart and only the lines of the
+     * changed books.
+     */
+    private CartDeltaDto toDelta(Long shoppingCartId, Collection<Long> changedBookIds,
+                                 Collection<Long> removedBookIds) {
+        CartDeltaDto delta = new CartDeltaDto();
+        delta.setShoppingCartId(shoppingCartId);
+        delta.setVersion(shoppingCartRepository.findVersionById(shoppingCartId));
+        delta.setChangedItems(changedBookIds.isEmpty() ? Set.of()
+                : shoppingCartRepository.findCartLines(shoppingCartId, changedBookIds).stream()
+                        .map(cartItemMapper::toDto)
+                        .collect(Collectors.toCollection(LinkedHashSet::new)));
+        delta.setRemovedBookIds(new LinkedHashSet<>(removedBookIds));
+        return delta;
+    }
+
+    /**
+     * Net effect of the operations on one cart line, in request order: either a quantity
+     * to add to whatever the line holds, or the absolute quantity it ends with,
+     * where zero removes the line.
+     */
+    private record LineChange(boolean absolute, int quantity) {
+        private static LineChange of(CartOperation operation) {
+            return switch (operation.getType()) {
+                case ADD -> new LineChange(false, operation.getQuantity());
+                case SET_QUANTITY -> new LineChange(true, operation.getQuantity());
+                case REMOVE -> new LineChange(true, 0);
+            };
+        }
+
+        private LineChange then(LineChange next) {
+            return next.absolute ? next : new LineChange(absolute, quantity + next.quantity);
+        }
     }
 }
@@ -0,0 +1,111 @@
+package com.example.bookstore.service.impl;
+
+import com.example.bookstore.dto.book.BookStockDto;
+import com.example.bookstore.exception.EntityNotFoundException;
+import com.example.bookstore.exception.InsufficientStockException;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.BookStockRepository;
+import com.example.bookstore.service.StockService;
+import jakarta.transaction.Transactional;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Stock kept as {@code inventory.stripes} counters per book. A reservation first tries a
+ * conditional decrement of one random stripe, so concurrent buyers of a hot title mostly
+ * lock different rows. Only when that stripe runs short are all stripes of the book
+ * locked and drained together. Books are reserved in id order to avoid deadlocks
+ * between carts sharing several titles.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockServiceImpl implements StockService {
+    private final BookStockRepository bookStockRepository;
+    private final BookRepository bookRepository;
+    @Value("${inventory.stripes:8}")
+    private int stripes;
+
+    @Override
+    public BookStockDto getStock(Long bookId) {
+        if (!bookRepository.existsById(bookId)) {
+            throw new EntityNotFoundException("Can't find book by id " + bookId);
+        }
+        return new BookStockDto(bookId, bookStockRepository.sum(bookId));
+    }
+
+    @Override
+    @Transactional
+    public BookStockDto setStock(Long bookId, int quantity) {
+        if (!bookRepository.existsById(bookId)) {
+            throw new EntityNotFoundException("Can't find book by id " + bookId);
+        }
+        int[] quantities = new int[stripes];
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            quantities[stripe] = quantity / stripes + (stripe < quantity % stripes ? 1 : 0);
+        }
+        bookStockRepository.replace(bookId, quantities);
+        return new BookStockDto(bookId, quantity);
+    }
+
+    @Override
+    public Set<Long> reserve(Map<Long, Integer> quantitiesByBookId) {
+        Set<Long> reserved = new HashSet<>();
+        new TreeMap<>(quantitiesByBookId).forEach((bookId, quantity) -> {
+            if (reserveBook(bookId, quantity)) {
+                reserved.add(bookId);
+            }
+        });
+        return reserved;
+    }
+
+    @Override
+    public void release(Map<Long, Integer> quantitiesByBookId) {
+        new TreeMap<>(quantitiesByBookId).forEach((bookId, quantity) -> {
+            if (!bookStockRepository.putBack(bookId, randomStripe(), quantity)) {
+                bookStockRepository.lockStripes(bookId).keySet().stream()
+                        .findFirst()
+                        .ifPresent(stripe -> bookStockRepository.putBack(bookId, stripe,
+                                quantity));
+            }
+        });
+    }
+
+    private boolean reserveBook(Long bookId, int quantity) {
+        if (bookStockRepository.take(bookId, randomStripe(), quantity)) {
+            return true;
+        }
+        Map<Integer, Integer> quantitiesByStripe = bookStockRepository.lockStripes(bookId);
+        if (quantitiesByStripe.isEmpty()) {
+            return false;
+        }
+        int available = quantitiesByStripe.values().stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+        if (available < quantity) {
+            throw new InsufficientStockException("Only " + available + " left of book "
+                    + bookId + ", " + quantity + " requested");
+        }
+        int remaining = quantity;
+        for (Map.Entry<Integer, Integer> stripe : quantitiesByStripe.entrySet()) {
+            int taken = Math.min(stripe.getValue(), remaining);
+            if (taken > 0) {
+                bookStockRepository.take(bookId, stripe.getKey(), taken);
+                remaining -= taken;
+            }
+            if (remaining == 0) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    private int randomStripe() {
+        return ThreadLocalRandom.current().nextInt(stripes);
+    }
+}
@@ -0,0 +1,18 @@
+CREATE TABLE IF NOT EXISTS authors (
+                         id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                         name VARCHAR(255) NOT NULL,
+                         CONSTRAINT uk_authors_name UNIQUE (name)
+);
+
+INSERT IGNORE INTO authors (name)
+SELECT DISTINCT author FROM books;
+
+ALTER TABLE books ADD COLUMN author_id BIGINT NULL;
+
+UPDATE books b JOIN authors a ON a.name = b.author
+SET b.author_id = a.id;
+
+ALTER TABLE books
+    MODIFY author_id BIGINT NOT NULL,
+    ADD INDEX idx_books_author_id (author_id),
+    ADD CONSTRAINT fk_books_author_id FOREIGN KEY (author_id) REFERENCES authors (id);
@@ -0,0 +1,14 @@
+-- Search filters and keyset sort keys, each ending with id as the tiebreaker
+CREATE INDEX idx_books_price ON books (price, id);
+CREATE INDEX idx_books_author ON books (author, id);
+CREATE INDEX idx_books_title ON books (title, id);
+
+-- Books of a category, the reverse side of the (book_id, category_id) primary key
+CREATE INDEX idx_books_categories_category_book ON books_categories (category_id, book_id);
+
+-- Cart of a user; its items are found through the unique cart/book key of the next change
+CREATE INDEX idx_shopping_carts_user_id ON shopping_carts (user_id);
+
+-- Order history of a user and the items of an order
+CREATE INDEX idx_orders_user_id ON orders (user_id, id);
+CREATE INDEX idx_order_items_order_id ON order_items (order_id);
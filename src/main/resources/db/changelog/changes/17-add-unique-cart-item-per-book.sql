@@ -0,0 +1,24 @@
+-- Merge duplicate lines into the oldest one: live quantities are summed,
+-- and the line stays deleted only if every duplicate was deleted
+UPDATE cart_items ci
+    JOIN (SELECT MIN(id) AS keep_id,
+                 SUM(IF(COALESCE(is_deleted, FALSE), 0, quantity)) AS live_quantity,
+                 MIN(COALESCE(is_deleted, FALSE)) AS all_deleted
+          FROM cart_items
+          GROUP BY shopping_cart_id, book_id
+          HAVING COUNT(*) > 1) duplicates ON ci.id = duplicates.keep_id
+SET ci.quantity = IF(duplicates.all_deleted, ci.quantity, duplicates.live_quantity),
+    ci.is_deleted = duplicates.all_deleted;
+
+DELETE ci FROM cart_items ci
+    JOIN (SELECT shopping_cart_id, book_id, MIN(id) AS keep_id
+          FROM cart_items
+          GROUP BY shopping_cart_id, book_id
+          HAVING COUNT(*) > 1) duplicates
+    ON ci.shopping_cart_id = duplicates.shopping_cart_id
+        AND ci.book_id = duplicates.book_id
+        AND ci.id <> duplicates.keep_id;
+
+-- The unique key also serves lookups by cart, so no single-column index is needed
+ALTER TABLE cart_items
+    ADD CONSTRAINT uk_cart_items_cart_book UNIQUE (shopping_cart_id, book_id);
@@ -0,0 +1,14 @@
+ALTER TABLE shopping_carts
+    ADD COLUMN updated_at DATETIME(3) NOT NULL
+        DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    ADD INDEX idx_shopping_carts_updated_at (updated_at);
+CREATE INDEX idx_cart_items_is_deleted ON cart_items (is_deleted, id);
+CREATE TABLE IF NOT EXISTS cart_items_archive (
+    id BIGINT PRIMARY KEY,
+    shopping_cart_id BIGINT NOT NULL,
+    book_id BIGINT NOT NULL,
+    quantity INT NOT NULL,
+    is_deleted BOOLEAN NOT NULL,
+    archived_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX idx_cart_items_archive_shopping_cart_id (shopping_cart_id)
+);
@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS order_idempotency_keys (
+    user_id BIGINT NOT NULL,
+    key_hash CHAR(64) NOT NULL,
+    request_hash CHAR(64) NOT NULL,
+    order_id BIGINT,
+    response MEDIUMTEXT,
+    created_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (user_id, key_hash),
+    INDEX idx_order_idempotency_keys_created_at (created_at),
+    FOREIGN KEY (user_id) REFERENCES users(id),
+    FOREIGN KEY (order_id) REFERENCES orders(id)
+);
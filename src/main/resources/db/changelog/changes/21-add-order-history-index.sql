@@ -0,0 +1,2 @@
+-- Order history of a user newest first, the keyset of the order summary listing
+CREATE INDEX idx_orders_user_order_date ON orders (user_id, order_date, id);
@@ -0,0 +1,10 @@
+-- Stock of a book split over a few rows, so concurrent checkouts of one title
+-- decrement different rows. Books without rows are not stock-tracked.
+CREATE TABLE IF NOT EXISTS book_stock_stripes (
+    book_id BIGINT NOT NULL,
+    stripe SMALLINT NOT NULL,
+    quantity INT NOT NULL,
+    PRIMARY KEY (book_id, stripe),
+    CONSTRAINT chk_book_stock_stripes_quantity CHECK (quantity >= 0),
+    FOREIGN KEY (book_id) REFERENCES books(id)
+);
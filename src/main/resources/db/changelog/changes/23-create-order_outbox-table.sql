@@ -0,0 +1,9 @@
+-- Order events written in the same transaction as the order change and drained in id
+-- order by the outbox relay, which deletes them once the sink has taken them.
+CREATE TABLE IF NOT EXISTS order_outbox (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    order_id BIGINT NOT NULL,
+    event_type VARCHAR(32) NOT NULL,
+    payload JSON NOT NULL,
+    created_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+);
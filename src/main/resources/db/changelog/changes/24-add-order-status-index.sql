@@ -0,0 +1,2 @@
+-- Bulk status changes select orders by their current status in id order
+CREATE INDEX idx_orders_status ON orders (status, id);
@@ -0,0 +1,9 @@
+-- order_date was written as 'yyyy-MM-dd HH:mm:ss' text. Copy it into a DATETIME column,
+-- then swap the columns and rebuild the order history index on the new one.
+ALTER TABLE orders ADD COLUMN order_date_time DATETIME NULL;
+UPDATE orders SET order_date_time = STR_TO_DATE(order_date, '%Y-%m-%d %H:%i:%s');
+ALTER TABLE orders
+    DROP INDEX idx_orders_user_order_date,
+    DROP COLUMN order_date,
+    CHANGE COLUMN order_date_time order_date DATETIME NOT NULL,
+    ADD INDEX idx_orders_user_order_date (user_id, order_date, id);
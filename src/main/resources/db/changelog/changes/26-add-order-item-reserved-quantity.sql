@@ -0,0 +1,3 @@
+-- Units each order item took from stock at checkout; a cancellation returns only these.
+-- Existing items start at 0, so canceling an older order never adds stock it didn't take.
+ALTER TABLE order_items ADD COLUMN reserved_quantity INT NOT NULL DEFAULT 0;
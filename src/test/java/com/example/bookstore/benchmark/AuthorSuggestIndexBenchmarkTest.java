@@ -0,0 +1,61 @@
+package com.example.bookstore.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.bookstore.search.AuthorSuggestIndex;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("benchmark")
+class AuthorSuggestIndexBenchmarkTest {
+    private static final int AUTHORS = 200_000;
+    private static final int LOOKUPS = 100_000;
+    private static final long TARGET_P99_NANOS = 2_000_000;
+
+    @Test
+    @DisplayName("Prefix suggestions over 200k authors stay under 2 ms at p99")
+    void suggest_TwoHundredThousandAuthors_P99WithinTarget() {
+        Random random = new Random(42);
+        AuthorSuggestIndex index = new AuthorSuggestIndex();
+        String[] names = new String[AUTHORS];
+        for (int i = 0; i < AUTHORS; i++) {
+            names[i] = randomWord(random) + " " + randomWord(random);
+            index.add((long) i, names[i]);
+        }
+        for (int i = 0; i < LOOKUPS / 10; i++) {
+            index.suggest(prefix(random, names), 10);
+        }
+
+        long[] latencies = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            String prefix = prefix(random, names);
+            long start = System.nanoTime();
+            index.suggest(prefix, 10);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        long p50 = latencies[LOOKUPS / 2];
+        long p99 = latencies[LOOKUPS * 99 / 100];
+
+        System.out.printf("Author suggest over %d names: p50 %d us, p99 %d us%n",
+                index.size(), p50 / 1_000, p99 / 1_000);
+        assertTrue(p99 < TARGET_P99_NANOS, "p99 was " + p99 / 1_000 + " us");
+    }
+
+    private static String prefix(Random random, String[] names) {
+        String name = names[random.nextInt(names.length)];
+        return name.substring(0, 1 + random.nextInt(Math.min(6, name.length())));
+    }
+
+    private static String randomWord(Random random) {
+        char[] word = new char[3 + random.nextInt(8)];
+        word[0] = (char) ('A' + random.nextInt(26));
+        for (int i = 1; i < word.length; i++) {
+            word[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(word);
+    }
+}
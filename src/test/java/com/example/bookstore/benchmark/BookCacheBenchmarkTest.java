@@ -0,0 +1,79 @@
+package com.example.bookstore.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+import com.example.bookstore.config.CustomMySqlContainer;
+import com.example.bookstore.dto.book.BookDto;
+import com.example.bookstore.exception.EntityNotFoundException;
+import com.example.bookstore.mapper.BookMapper;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.service.BookService;
+import java.util.List;
+import java.util.function.LongFunction;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Tag("benchmark")
+@SpringBootTest
+@Sql(scripts = {"/sql/clean-up.sql",
+        "/sql/create-default-categories.sql",
+        "/sql/create-default-books.sql",
+        "/sql/add-default-book-categories.sql"})
+@Sql(scripts = "/sql/clean-up.sql", executionPhase = AFTER_TEST_METHOD)
+class BookCacheBenchmarkTest {
+    private static final CustomMySqlContainer container = CustomMySqlContainer.getInstance();
+    private static final List<Long> BOOK_IDS = List.of(100L, 101L, 10L);
+    private static final int WARM_UP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 20_000;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private BookMapper bookMapper;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    static void beforeAll() {
+        container.start();
+    }
+
+    @Test
+    @DisplayName("Cached findById has higher throughput than repository and mapper path")
+    void findById_Cached_OutperformsRepositoryPath() {
+        LongFunction<BookDto> repositoryPath = id -> transactionTemplate.execute(status ->
+                bookRepository.findById(id)
+                        .map(bookMapper::toDto)
+                        .orElseThrow(() -> new EntityNotFoundException("No book " + id)));
+        BOOK_IDS.forEach(id -> transactionTemplate.execute(status -> bookService.findById(id)));
+
+        double repositoryOpsPerSecond = measure(repositoryPath);
+        double cachedOpsPerSecond = measure(bookService::findById);
+
+        System.out.printf("findById repository path: %.0f ops/s, cached: %.0f ops/s (x%.1f)%n",
+                repositoryOpsPerSecond, cachedOpsPerSecond,
+                cachedOpsPerSecond / repositoryOpsPerSecond);
+        assertTrue(cachedOpsPerSecond > repositoryOpsPerSecond,
+                "Cached lookups should be faster than going to the database");
+    }
+
+    private double measure(LongFunction<BookDto> lookup) {
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            lookup.apply(BOOK_IDS.get(i % BOOK_IDS.size()));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            lookup.apply(BOOK_IDS.get(i % BOOK_IDS.size()));
+        }
+        long elapsed = System.nanoTime() - start;
+        return MEASURED_ITERATIONS * 1_000_000_000.0 / elapsed;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.bookstore.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+import com.example.bookstore.config.CustomMySqlContainer;
+import com.example.bookstore.dto.book.BookImportReportDto;
+import com.example.bookstore.export.BookExportFormat;
+import com.example.bookstore.service.BookImportService;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+
+@Tag("benchmark")
+@SpringBootTest(properties = "book.import.batch-size=1000")
+@Sql(scripts = {"/sql/clean-up.sql", "/sql/create-default-categories.sql"})
+@Sql(scripts = "/sql/clean-up.sql", executionPhase = AFTER_TEST_METHOD)
+class BookImportBenchmarkTest {
+    private static final CustomMySqlContainer container = CustomMySqlContainer.getInstance();
+    private static final int BOOKS = 100_000;
+    private static final long TARGET_MILLIS = 60_000;
+    @Autowired
+    private BookImportService bookImportService;
+
+    @BeforeAll
+    static void beforeAll() {
+        container.start();
+    }
+
+    @Test
+    @DisplayName("Importing 100k books from CSV takes less than a minute")
+    void importBooks_HundredThousandRows_WithinTarget() throws Exception {
+        StringBuilder csv = new StringBuilder("title,author,isbn,price,description,categoryIds\n");
+        for (int i = 0; i < BOOKS; i++) {
+            csv.append("Title ").append(i).append(",Author ").append(i % 5_000)
+                    .append(",isbn-").append(i).append(',').append(i % 100).append(".99")
+                    .append(",\"A description, with a comma\",").append(1 + i % 3).append('\n');
+        }
+        byte[] upload = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        long start = System.nanoTime();
+        BookImportReportDto report = bookImportService.importBooks(BookExportFormat.CSV,
+                new ByteArrayInputStream(upload));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("Imported %d books in %d ms (%.0f books/min)%n",
+                report.getImported(), elapsedMillis,
+                report.getImported() * 60_000.0 / elapsedMillis);
+        assertEquals(BOOKS, report.getImported());
+        assertTrue(elapsedMillis < TARGET_MILLIS,
+                "Import of " + BOOKS + " books took " + elapsedMillis + " ms");
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.bookstore.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+import com.example.bookstore.config.CustomMySqlContainer;
+import com.example.bookstore.dto.cart.ShoppingCartDto;
+import com.example.bookstore.exception.EntityNotFoundException;
+import com.example.bookstore.mapper.CartItemMapper;
+import com.example.bookstore.mapper.ShoppingCartMapper;
+import com.example.bookstore.model.User;
+import com.example.bookstore.repository.ShoppingCartRepository;
+import com.example.bookstore.repository.UserRepository;
+import com.example.bookstore.service.ShoppingCartService;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Sql(scripts = {"/sql/clean-up.sql", "/sql/create-default-categories.sql"})
+@Sql(scripts = "/sql/clean-up.sql", executionPhase = AFTER_TEST_METHOD)
+@Sql(statements = "DELETE FROM users WHERE email = 'cart-benchmark@example.com'",
+        executionPhase = AFTER_TEST_METHOD)
+class CartHydrationBenchmarkTest {
+    private static final CustomMySqlContainer container = CustomMySqlContainer.getInstance();
+    private static final String EMAIL = "cart-benchmark@example.com";
+    private static final int WARM_UP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 2_000;
+    private final Authentication authentication =
+            new UsernamePasswordAuthenticationToken(EMAIL, null);
+    @Autowired
+    private ShoppingCartService shoppingCartService;
+    @Autowired
+    private ShoppingCartRepository shoppingCartRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ShoppingCartMapper shoppingCartMapper;
+    @Autowired
+    private CartItemMapper cartItemMapper;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    static void beforeAll() {
+        container.start();
+    }
+
+    @ParameterizedTest(name = "{0} lines")
+    @ValueSource(ints = {1, 10, 100})
+    @DisplayName("Cart projection takes one statement and beats the entity mapper path")
+    void getByUser_Projection_ComparedToMapperPath(int lines) {
+        seedCart(lines);
+        Supplier<ShoppingCartDto> mapperPath = () -> transactionTemplate.execute(status -> {
+            User user = userRepository.findByEmail(EMAIL).orElseThrow();
+            return shoppingCartMapper.toDto(shoppingCartRepository.findByUserId(user.getId())
+                    .orElseThrow(() -> new EntityNotFoundException("No cart")), cartItemMapper);
+        });
+        Supplier<ShoppingCartDto> projectionPath = () ->
+                shoppingCartService.getByUser(authentication);
+        assertEquals(lines, mapperPath.get().getCartItemIds().size());
+        assertEquals(lines, projectionPath.get().getCartItemIds().size());
+
+        long mapperStatements = countStatements(mapperPath);
+        long projectionStatements = countStatements(projectionPath);
+        double mapperMicros = measure(mapperPath);
+        double projectionMicros = measure(projectionPath);
+
+        System.out.printf("Cart of %d lines: mapper path %d statements %.0f us, "
+                        + "projection %d statements %.0f us%n", lines, mapperStatements,
+                mapperMicros, projectionStatements, projectionMicros);
+        assertEquals(1, projectionStatements);
+    }
+
+    private void seedCart(int lines) {
+        List<Object[]> books = new ArrayList<>();
+        for (long id = 1; id <= lines; id++) {
+            books.add(new Object[]{id, "Book " + id, "isbn-" + id, BigDecimal.valueOf(id)});
+        }
+        jdbcTemplate.update("INSERT INTO authors (id, name) VALUES (1, 'Author')");
+        jdbcTemplate.batchUpdate("INSERT INTO books (id, title, author, author_id, isbn, price) "
+                + "VALUES (?, ?, 'Author', 1, ?, ?)", books);
+        jdbcTemplate.update("INSERT INTO users (email, password, first_name, last_name) "
+                + "VALUES (?, 'password', 'Cart', 'Benchmark')", EMAIL);
+        jdbcTemplate.update("INSERT INTO shopping_carts (user_id) "
+                + "SELECT id FROM users WHERE email = ?", EMAIL);
+        jdbcTemplate.update("INSERT INTO cart_items (shopping_cart_id, book_id, quantity) "
+                + "SELECT sc.id, b.id, 1 FROM shopping_carts sc JOIN users u ON u.id = sc.user_id "
+                + "CROSS JOIN books b WHERE u.email = ?", EMAIL);
+    }
+
+    private long countStatements(Supplier<ShoppingCartDto> path) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        path.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private double measure(Supplier<ShoppingCartDto> path) {
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            path.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            path.get();
+        }
+        return (System.nanoTime() - start) / 1_000.0 / MEASURED_ITERATIONS;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.bookstore.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+import com.example.bookstore.config.CustomMySqlContainer;
+import com.example.bookstore.dto.order.OrderDto;
+import com.example.bookstore.dto.order.PostOrderRequestDto;
+import com.example.bookstore.service.OrderService;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.jdbc.Sql;
+
+@Tag("benchmark")
+@SpringBootTest
+@Sql(scripts = {"/sql/clean-up.sql", "/sql/create-default-categories.sql"})
+@Sql(scripts = "/sql/clean-up.sql", executionPhase = AFTER_TEST_METHOD)
+@Sql(statements = "DELETE FROM users WHERE email = 'checkout-benchmark@example.com'",
+        executionPhase = AFTER_TEST_METHOD)
+class CheckoutBenchmarkTest {
+    private static final CustomMySqlContainer container = CustomMySqlContainer.getInstance();
+    private static final String EMAIL = "checkout-benchmark@example.com";
+    private static final int WARM_UP_ITERATIONS = 20;
+    private static final int MEASURED_ITERATIONS = 200;
+    private final Authentication authentication =
+            new UsernamePasswordAuthenticationToken(EMAIL, null);
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void beforeAll() {
+        container.start();
+    }
+
+    @ParameterizedTest(name = "{0} lines")
+    @ValueSource(ints = {1, 10, 30, 100})
+    @DisplayName("Checkout latency grows slowly with cart size")
+    void placeOrder_CartSizes_MeasuresLatency(int lines) {
+        seedCart(lines);
+        PostOrderRequestDto request = new PostOrderRequestDto();
+        request.setShippingAddress("Benchmark street 1");
+        OrderDto order = orderService.placeOrder(authentication, request);
+        assertEquals(lines, order.getOrderItems().size());
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            refillCart();
+            orderService.placeOrder(authentication, request);
+        }
+        long[] nanos = new long[MEASURED_ITERATIONS];
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            refillCart();
+            long start = System.nanoTime();
+            orderService.placeOrder(authentication, request);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+
+        System.out.printf("Checkout of %d lines: p50 %.2f ms, p99 %.2f ms%n", lines,
+                nanos[MEASURED_ITERATIONS / 2] / 1_000_000.0,
+                nanos[MEASURED_ITERATIONS * 99 / 100] / 1_000_000.0);
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cart_items WHERE is_deleted = false", Integer.class));
+    }
+
+    private void seedCart(int lines) {
+        List<Object[]> books = new ArrayList<>();
+        for (long id = 1; id <= lines; id++) {
+            books.add(new Object[]{id, "Book " + id, "isbn-" + id, BigDecimal.valueOf(id)});
+        }
+        jdbcTemplate.update("INSERT INTO authors (id, name) VALUES (1, 'Author')");
+        jdbcTemplate.batchUpdate("INSERT INTO books (id, title, author, author_id, isbn, price) "
+                + "VALUES (?, ?, 'Author', 1, ?, ?)", books);
+        jdbcTemplate.update("INSERT INTO users (email, password, first_name, last_name) "
+                + "VALUES (?, 'password', 'Checkout', 'Benchmark')", EMAIL);
+        jdbcTemplate.update("INSERT INTO shopping_carts (user_id) "
+                + "SELECT id FROM users WHERE email = ?", EMAIL);
+        jdbcTemplate.update("INSERT INTO cart_items (shopping_cart_id, book_id, quantity) "
+                + "SELECT sc.id, b.id, 1 FROM shopping_carts sc JOIN users u ON u.id = sc.user_id "
+                + "CROSS JOIN books b WHERE u.email = ?", EMAIL);
+    }
+
+    private void refillCart() {
+        jdbcTemplate.update("UPDATE cart_items SET is_deleted = false");
+    }
+}
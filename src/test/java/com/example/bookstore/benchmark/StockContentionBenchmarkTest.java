@@ -0,0 +1,122 @@
+package com.example.bookstore.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+import com.example.bookstore.config.CustomMySqlContainer;
+import com.example.bookstore.dto.order.PostOrderRequestDto;
+import com.example.bookstore.exception.InsufficientStockException;
+import com.example.bookstore.service.OrderService;
+import com.example.bookstore.service.StockService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.jdbc.Sql;
+
+/**
+ * Buyers that lose a deadlock in the all-stripes fallback, which only happens once the
+ * stripes run low, retry as a client would.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Sql(scripts = {"/sql/clean-up.sql", "/sql/create-default-categories.sql"})
+@Sql(scripts = "/sql/clean-up.sql", executionPhase = AFTER_TEST_METHOD)
+@Sql(statements = "DELETE FROM users WHERE email LIKE 'stock-buyer-%@example.com'",
+        executionPhase = AFTER_TEST_METHOD)
+class StockContentionBenchmarkTest {
+    private static final CustomMySqlContainer container = CustomMySqlContainer.getInstance();
+    private static final int BUYERS = 200;
+    private static final int STOCK = 120;
+    private static final long BOOK_ID = 1L;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private StockService stockService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void beforeAll() {
+        container.start();
+    }
+
+    @Test
+    @DisplayName("200 concurrent buyers of one title never oversell it")
+    void placeOrder_ConcurrentBuyersOfOneIsbn_SellsExactlyTheStock() throws Exception {
+        seedBuyers();
+        stockService.setStock(BOOK_ID, STOCK);
+        PostOrderRequestDto request = new PostOrderRequestDto();
+        request.setShippingAddress("Benchmark street 1");
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger retries = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(BUYERS);
+        List<Future<Boolean>> checkouts = new ArrayList<>(BUYERS);
+        for (int buyer = 0; buyer < BUYERS; buyer++) {
+            String email = "stock-buyer-" + buyer + "@example.com";
+            checkouts.add(executor.submit(() -> {
+                start.await();
+                while (true) {
+                    try {
+                        orderService.placeOrder(
+                                new UsernamePasswordAuthenticationToken(email, null), request);
+                        return true;
+                    } catch (InsufficientStockException e) {
+                        return false;
+                    } catch (ConcurrencyFailureException e) {
+                        retries.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        int sold = 0;
+        for (Future<Boolean> checkout : checkouts) {
+            if (checkout.get(1, TimeUnit.MINUTES)) {
+                sold++;
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        executor.shutdown();
+
+        System.out.printf("%d buyers, stock %d: %d sold in %.2f s, %.0f checkouts/s, "
+                + "%d deadlock retries%n", BUYERS, STOCK, sold, seconds, BUYERS / seconds,
+                retries.get());
+        assertEquals(STOCK, sold);
+        assertEquals(0, stockService.getStock(BOOK_ID).getQuantity());
+        assertEquals(STOCK, jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity), 0) FROM order_items WHERE book_id = ?",
+                Integer.class, BOOK_ID));
+    }
+
+    private void seedBuyers() {
+        jdbcTemplate.update("INSERT INTO authors (id, name) VALUES (1, 'Author')");
+        jdbcTemplate.update("INSERT INTO books (id, title, author, author_id, isbn, price) "
+                + "VALUES (?, 'Hot title', 'Author', 1, 'hot-isbn', 10)", BOOK_ID);
+        List<Object[]> users = new ArrayList<>(BUYERS);
+        for (int buyer = 0; buyer < BUYERS; buyer++) {
+            users.add(new Object[]{"stock-buyer-" + buyer + "@example.com"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (email, password, first_name, last_name) "
+                + "VALUES (?, 'password', 'Stock', 'Buyer')", users);
+        jdbcTemplate.update("INSERT INTO shopping_carts (user_id) "
+                + "SELECT id FROM users WHERE email LIKE 'stock-buyer-%@example.com'");
+        jdbcTemplate.update("INSERT INTO cart_items (shopping_cart_id, book_id, quantity) "
+                + "SELECT sc.id, ?, 1 FROM shopping_carts sc JOIN users u ON u.id = sc.user_id "
+                + "WHERE u.email LIKE 'stock-buyer-%@example.com'", BOOK_ID);
+    }
+}
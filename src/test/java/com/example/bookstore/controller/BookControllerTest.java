@@ -1,7 +1,9 @@
 package com.example.bookstore.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
@@ -12,14 +14,22 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.example.bookstore.config.CustomMySqlContainer;
+import com.example.bookstore.dto.book.BookCursorPageDto;
 import com.example.bookstore.dto.book.BookDto;
+import com.example.bookstore.dto.book.BookFacetedPageDto;
+import com.example.bookstore.dto.book.BookImportErrorDto;
+import com.example.bookstore.dto.book.BookImportReportDto;
 import com.example.bookstore.dto.book.CreateBookRequestDto;
+import com.example.bookstore.dto.book.PriceBucketDto;
+import com.example.bookstore.search.BookSearchIndexSynchronizer;
 import com.example.bookstore.util.TestUtil;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
@@ -29,6 +39,7 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
@@ -46,15 +57,20 @@ public class BookControllerTest {
     private static final String BOOKS_API_URL = "/api/books";
     private static final String BOOKS_BY_ID_API_URL = "/api/books/{id}";
     private static final String BOOKS_SEARCH_API_URL = "/api/books/search";
+    private static final String BOOKS_EXPORT_API_URL = "/api/books/export";
+    private static final String BOOKS_IMPORT_API_URL = "/api/books/import";
     private static final String ADD_BOOK_TO_CATEGORY_API_URL =
             "/api/books/{bookId}/categories/{categoryId}";
     private final MockMvc mockMvc;
     private final ObjectMapper objectMapper;
+    private final BookSearchIndexSynchronizer bookSearchIndexSynchronizer;
 
     @Autowired
-    public BookControllerTest(MockMvc mockMvc, ObjectMapper objectMapper) {
+    public BookControllerTest(MockMvc mockMvc, ObjectMapper objectMapper,
+                              BookSearchIndexSynchronizer bookSearchIndexSynchronizer) {
         this.mockMvc = mockMvc;
         this.objectMapper = objectMapper;
+        this.bookSearchIndexSynchronizer = bookSearchIndexSynchronizer;
     }
 
     @BeforeAll
@@ -156,6 +172,54 @@ public class BookControllerTest {
         }
     }
 
+    @Test
+    @DisplayName("Getting books by cursor walks all pages ordered by price without gaps")
+    @WithMockUser(username = "user")
+    void getAllBooksByCursor_SortedByPrice_ReturnsAllPages() throws Exception {
+        List<Long> actualIds = new ArrayList<>();
+        String cursor = "";
+        do {
+            MvcResult result = mockMvc.perform(get(BOOKS_API_URL)
+                            .param("cursor", cursor)
+                            .param("size", "2")
+                            .param("sort", "price,desc"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            BookCursorPageDto page = objectMapper.readValue(
+                    result.getResponse().getContentAsString(), BookCursorPageDto.class);
+            page.getContent().forEach(book -> actualIds.add(book.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of(101L, 100L, 10L), actualIds);
+    }
+
+    @Test
+    @DisplayName("Getting books with a malformed cursor returns 400 Bad Request")
+    @WithMockUser(username = "user")
+    void getAllBooksByCursor_MalformedCursor_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get(BOOKS_API_URL)
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Searching books by cursor returns the last page without next cursor")
+    @WithMockUser(username = "user")
+    void searchBooksByCursor_Valid_ReturnsLastPage() throws Exception {
+        MvcResult result = mockMvc.perform(get(BOOKS_SEARCH_API_URL)
+                        .param("cursor", "")
+                        .param("minPrice", "9")
+                        .param("maxPrice", "21"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        BookCursorPageDto page = objectMapper.readValue(
+                result.getResponse().getContentAsString(), BookCursorPageDto.class);
+        assertEquals(2, page.getContent().size());
+        assertNull(page.getNextCursor());
+    }
+
     @Test
     @DisplayName("Deleting a book by a valid ID returns NoContent status and the book is not found")
     @WithMockUser(username = "admin", roles = {"ADMIN"})
@@ -242,6 +306,29 @@ public class BookControllerTest {
         }
     }
 
+    @Test
+    @DisplayName("Full-text search finds a newly created book by words of title and author")
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void fullTextSearch_CreatedBook_ReturnsMatchingBookDto() throws Exception {
+        CreateBookRequestDto requestDto = TestUtil.createBookRequestDto(
+                "Designing Data-Intensive Applications", "Martin Kleppmann", 40);
+        mockMvc.perform(post(BOOKS_API_URL)
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isCreated());
+
+        MvcResult result = mockMvc.perform(get(BOOKS_SEARCH_API_URL)
+                        .param("q", "kleppmann data-intensive"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        List<BookDto> actual = objectMapper.readValue(
+                result.getResponse().getContentAsString(),
+                new TypeReference<List<BookDto>>() {});
+        assertEquals(1, actual.size());
+        assertEquals(requestDto.getIsbn(), actual.get(0).getIsbn());
+    }
+
     @Test
     @DisplayName("Updating a book by a valid ID returns the updated BookDto with Ok status")
     @WithMockUser(username = "admin", roles = {"ADMIN"})
@@ -268,6 +355,29 @@ public class BookControllerTest {
         assertEquals("new description", actual.getDescription());
     }
 
+    @Test
+    @DisplayName("Getting a book after update returns the updated BookDto, not a cached one")
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void getBookById_AfterUpdate_ReturnsUpdatedBookDto() throws Exception {
+        Long id = 100L;
+        mockMvc.perform(get(BOOKS_BY_ID_API_URL, id))
+                .andExpect(status().isOk());
+        CreateBookRequestDto requestDto = TestUtil
+                .createBookRequestDto("Updated title", "First Author", 20);
+        mockMvc.perform(put(BOOKS_BY_ID_API_URL, id)
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isOk());
+
+        MvcResult result = mockMvc.perform(get(BOOKS_BY_ID_API_URL, id))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        BookDto actual = objectMapper.readValue(
+                result.getResponse().getContentAsString(), BookDto.class);
+        assertEquals("Updated title", actual.getTitle());
+    }
+
     @Test
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     @DisplayName("Adding a book to a category, controller returns updated BookDto")
@@ -292,4 +402,155 @@ public class BookControllerTest {
         assertTrue(updatedBookDto.getCategoryIds().contains(2L),
                 "The updated BookDto does not contain the ID of the added category (2)");
     }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @Sql(scripts = {"/sql/clean-up.sql",
+            "/sql/create-default-categories.sql",
+            "/sql/create-default-books.sql",
+            "/sql/add-default-book-categories.sql"})
+    @DisplayName("Exporting books as NDJSON streams one BookDto per line ordered by id")
+    void exportBooks_Ndjson_ReturnsOneBookPerLine() throws Exception {
+        MvcResult result = mockMvc.perform(get(BOOKS_EXPORT_API_URL))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertEquals("application/x-ndjson;charset=UTF-8",
+                result.getResponse().getContentType());
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(3, lines.length);
+        List<BookDto> books = new ArrayList<>();
+        for (String line : lines) {
+            books.add(objectMapper.readValue(line, BookDto.class));
+        }
+        assertEquals(List.of(10L, 100L, 101L), books.stream().map(BookDto::getId).toList());
+        books.forEach(book -> assertEquals(Set.of(3L), book.getCategoryIds()));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @DisplayName("Exporting books as CSV returns a header and one row per book")
+    void exportBooks_Csv_ReturnsHeaderAndRows() throws Exception {
+        MvcResult result = mockMvc.perform(get(BOOKS_EXPORT_API_URL).param("format", "CSV"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\r\n");
+        assertEquals(4, lines.length);
+        assertEquals("id,title,author,isbn,price,description,coverImage,categoryIds", lines[0]);
+        assertEquals("10,Third Book,Third Author,764831641,15.00,"
+                + "best practices for Java Platform,some image,", lines[1]);
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    @DisplayName("Exporting books without admin role returns 403 Forbidden")
+    void exportBooks_NotAdmin_ReturnsForbidden() throws Exception {
+        mockMvc.perform(get(BOOKS_EXPORT_API_URL))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @DisplayName("Importing a CSV saves valid rows and reports rejected rows by line")
+    void importBooks_Csv_SavesValidRowsAndReportsErrors() throws Exception {
+        String csv = "title,author,isbn,price,categoryIds\n"
+                + "Imported one,Author,imp-1,12.50,1;2\n"
+                + "Imported two,Author,1231244214,10,\n"
+                + ",Author,imp-3,10,\n"
+                + "Imported four,Author,imp-4,10,\n";
+
+        MvcResult result = mockMvc.perform(post(BOOKS_IMPORT_API_URL)
+                        .param("format", "CSV")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        BookImportReportDto report = objectMapper.readValue(
+                result.getResponse().getContentAsString(), BookImportReportDto.class);
+        assertEquals(2, report.getImported());
+        assertEquals(List.of(
+                new BookImportErrorDto(3, "book with isbn 1231244214 already exists"),
+                new BookImportErrorDto(4, "title must not be blank")),
+                report.getErrors());
+        MvcResult search = mockMvc.perform(get(BOOKS_SEARCH_API_URL).param("q", "imported"))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<BookDto> imported = objectMapper.readValue(
+                search.getResponse().getContentAsString(), new TypeReference<>() {});
+        assertEquals(2, imported.size());
+        assertTrue(imported.stream().anyMatch(book -> book.getCategoryIds()
+                .equals(Set.of(1L, 2L))));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @DisplayName("Importing a CSV without required columns returns 400 Bad Request")
+    void importBooks_MissingColumns_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post(BOOKS_IMPORT_API_URL)
+                        .param("format", "CSV")
+                        .contentType("text/csv")
+                        .content("title,author\nA,B\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @DisplayName("Getting a book with a matching ETag returns 304, after an update returns 200")
+    void getBookById_IfNoneMatch_ReturnsNotModifiedUntilUpdated() throws Exception {
+        Long id = 100L;
+        MvcResult first = mockMvc.perform(get(BOOKS_BY_ID_API_URL, id))
+                .andExpect(status().isOk())
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertNotNull(first.getResponse().getHeader(HttpHeaders.LAST_MODIFIED));
+
+        MvcResult notModified = mockMvc.perform(get(BOOKS_BY_ID_API_URL, id)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+        assertEquals(etag, notModified.getResponse().getHeader(HttpHeaders.ETAG));
+        assertEquals("", notModified.getResponse().getContentAsString());
+
+        CreateBookRequestDto requestDto = TestUtil.createBookRequestDto(
+                "Updated title", "First Author", 20);
+        mockMvc.perform(put(BOOKS_BY_ID_API_URL, id)
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isOk());
+        MvcResult modified = mockMvc.perform(get(BOOKS_BY_ID_API_URL, id)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNotEquals(etag, modified.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    @Sql(scripts = {"/sql/clean-up.sql",
+            "/sql/create-default-categories.sql",
+            "/sql/create-default-books.sql",
+            "/sql/add-default-book-categories.sql"})
+    @DisplayName("Searching with facets=true returns the page with facet counts")
+    void searchWithFacets_AuthorFilter_ReturnsPageAndCounts() throws Exception {
+        bookSearchIndexSynchronizer.rebuild();
+
+        MvcResult result = mockMvc.perform(get(BOOKS_SEARCH_API_URL)
+                        .param("facets", "true")
+                        .param("authors", "First Author"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        BookFacetedPageDto page = objectMapper.readValue(
+                result.getResponse().getContentAsString(), BookFacetedPageDto.class);
+        assertEquals(1, page.getContent().size());
+        assertEquals(1, page.getFacets().getTotal());
+        assertEquals(3, page.getFacets().getAuthors().size());
+        assertEquals(1L, page.getFacets().getCategories().get(0).getCount());
+        assertEquals(1L, page.getFacets().getPrices().stream()
+                .mapToLong(PriceBucketDto::getCount)
+                .sum());
+    }
 }
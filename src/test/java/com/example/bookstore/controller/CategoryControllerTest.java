@@ -26,6 +26,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
@@ -206,4 +207,22 @@ public class CategoryControllerTest {
                     String.format("Expected category is not found: %s", expectedBook));
         }
     }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @DisplayName("Getting a category with a matching ETag returns 304 Not Modified")
+    void getCategoryById_IfNoneMatch_ReturnsNotModified() throws Exception {
+        MvcResult first = mockMvc.perform(get(CATEGORY_BY_ID_API_URL, 1L))
+                .andExpect(status().isOk())
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        MvcResult notModified = mockMvc.perform(get(CATEGORY_BY_ID_API_URL, 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+
+        assertEquals("", notModified.getResponse().getContentAsString());
+    }
 }
@@ -0,0 +1,66 @@
+package com.example.bookstore.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.bookstore.dto.book.BookDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BookExportWriterTest {
+
+    @Test
+    @DisplayName("CSV writer quotes fields with separators, quotes and line breaks")
+    void csvWriter_SpecialCharacters_QuotesFields() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BookExportWriter writer = new CsvBookExportWriter(out);
+
+        writer.write(book(1L, "Title, with comma", "Say \"hi\"\nplease"));
+        writer.write(book(2L, "Plain", null));
+        writer.flush();
+
+        assertEquals("id,title,author,isbn,price,description,coverImage,categoryIds\r\n"
+                + "1,\"Title, with comma\",Author,isbn,9.50,\"Say \"\"hi\"\"\nplease\",,1;2\r\n"
+                + "2,Plain,Author,isbn,9.50,,,1;2\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("NDJSON writer terminates every book with a newline")
+    void ndjsonWriter_TwoBooks_WritesTwoLines() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BookExportWriter writer = new NdjsonBookExportWriter(out, objectMapper);
+
+        writer.write(book(1L, "First", "line\nbreak"));
+        writer.write(book(2L, "Second", null));
+        writer.flush();
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length);
+        assertEquals("", lines[2]);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1L, first.get("id").asLong());
+        assertEquals("line\nbreak", first.get("description").asText());
+        assertEquals("[1,2]", first.get("categoryIds").toString());
+        assertEquals("Second", objectMapper.readTree(lines[1]).get("title").asText());
+    }
+
+    private BookDto book(Long id, String title, String description) {
+        return BookDto.builder()
+                .id(id)
+                .title(title)
+                .author("Author")
+                .isbn("isbn")
+                .price(new BigDecimal("9.50"))
+                .description(description)
+                .categoryIds(new TreeSet<>(Set.of(1L, 2L)))
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.bookstore.imports;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.bookstore.exception.BookImportException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BookImportReaderTest {
+
+    @Test
+    @DisplayName("CSV reader maps columns by header and reports the starting line of each row")
+    void csvReader_QuotedMultilineField_ReadsRowsWithLineNumbers() throws Exception {
+        BookImportReader reader = new CsvBookImportReader(input(
+                "isbn,title,author,price,description,categoryIds\r\n"
+                        + "111,\"Title, \"\"quoted\"\"\",Author,9.99,\"two\nlines\",1;2\r\n"
+                        + "\r\n"
+                        + "222,Plain,Author,abc,,\n"));
+
+        BookImportRow first = reader.next();
+        assertEquals(2, first.line());
+        assertEquals("Title, \"quoted\"", first.book().getTitle());
+        assertEquals("two\nlines", first.book().getDescription());
+        assertEquals(new BigDecimal("9.99"), first.book().getPrice());
+        assertEquals(Set.of(1L, 2L), first.categoryIds());
+        BookImportRow second = reader.next();
+        assertEquals(5, second.line());
+        assertEquals("price must be a number", second.error());
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("CSV reader rejects an upload without the required columns")
+    void csvReader_MissingColumns_ThrowsException() {
+        assertThrows(BookImportException.class,
+                () -> new CsvBookImportReader(input("title,author\nA,B\n")));
+    }
+
+    @Test
+    @DisplayName("NDJSON reader reads one book per line and rejects malformed lines")
+    void ndjsonReader_MixedLines_ReadsBooksAndErrors() throws Exception {
+        BookImportReader reader = new NdjsonBookImportReader(input(
+                "{\"title\":\"T\",\"author\":\"A\",\"isbn\":\"1\",\"price\":5,"
+                        + "\"categoryIds\":[3]}\n"
+                        + "\n"
+                        + "{\"title\":\n"
+                        + "{\"title\":\"T\",\"price\":\"x\"}\n"),
+                new ObjectMapper());
+
+        BookImportRow first = reader.next();
+        assertEquals(1, first.line());
+        assertEquals("T", first.book().getTitle());
+        assertEquals(new BigDecimal("5"), first.book().getPrice());
+        assertEquals(Set.of(3L), first.categoryIds());
+        assertEquals(3, reader.next().line());
+        assertEquals("price must be a number", reader.next().error());
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("NDJSON reader rejects an overlong line and goes on with the next one")
+    void ndjsonReader_OverlongLine_RejectsLine() throws Exception {
+        BookImportReader reader = new NdjsonBookImportReader(input(
+                "{\"title\":\"" + "x".repeat(70_000) + "\"}\r\n"
+                        + "{\"title\":\"T\"}\r\n"),
+                new ObjectMapper());
+
+        assertEquals("line is longer than 65535 characters", reader.next().error());
+        BookImportRow next = reader.next();
+        assertEquals(2, next.line());
+        assertEquals("T", next.book().getTitle());
+        assertNull(reader.next());
+    }
+
+    private InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.bookstore.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileOrderEventSinkTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Batches are appended as one JSON line per event with the payload inline")
+    void publish_TwoBatches_AppendsLines() throws IOException {
+        Path file = directory.resolve("events/orders.ndjson");
+        FileOrderEventSink sink = new FileOrderEventSink(file, objectMapper);
+
+        sink.publish(List.of(event(1L, OrderEvent.ORDER_PLACED, "{\"id\":50}")));
+        sink.publish(List.of(event(2L, OrderEvent.STATUS_CHANGED, "{\"to\":\"SHIPPED\"}")));
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        JsonNode last = objectMapper.readTree(lines.get(1));
+        assertEquals(2L, last.get("id").asLong());
+        assertEquals(OrderEvent.STATUS_CHANGED, last.get("type").asText());
+        assertEquals("SHIPPED", last.get("payload").get("to").asText());
+    }
+
+    private OrderEvent event(Long id, String type, String payload) {
+        return new OrderEvent(id, 50L, type, payload, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.bookstore.outbox;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps published events in memory. {@link #failNext()} makes the next publish throw,
+ * to exercise redelivery.
+ */
+public class InMemoryOrderEventSink implements OrderEventSink {
+    private final List<OrderEvent> events = new ArrayList<>();
+    private boolean failNext;
+
+    @Override
+    public synchronized void publish(List<OrderEvent> batch) throws IOException {
+        if (failNext) {
+            failNext = false;
+            throw new IOException("Sink unavailable");
+        }
+        events.addAll(batch);
+    }
+
+    public synchronized void failNext() {
+        failNext = true;
+    }
+
+    public synchronized List<OrderEvent> getEvents() {
+        return List.copyOf(events);
+    }
+}
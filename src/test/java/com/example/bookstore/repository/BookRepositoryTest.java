@@ -82,7 +82,7 @@ class BookRepositoryTest {
         int indexOfBook = 2;
         assertTrue(all.get().anyMatch(dto ->
                 EqualsBuilder.reflectionEquals(dto, books.get(indexOfBook),
-                        "id", "isbn", "categories")));
+                        "id", "isbn", "categories", "version", "updatedAt", "authorId")));
     }
 
     @Test
@@ -96,7 +96,7 @@ class BookRepositoryTest {
         for (Book book : books) {
             assertTrue(allByCategoriesId.stream()
                     .anyMatch(e -> EqualsBuilder.reflectionEquals(e, book,
-                            "id", "isbn", "categories")));
+                            "id", "isbn", "categories", "version", "updatedAt", "authorId")));
         }
     }
 
@@ -128,6 +128,6 @@ class BookRepositoryTest {
         int indexOfBook = 0;
         assertTrue(all.get().anyMatch(dto ->
                 EqualsBuilder.reflectionEquals(dto, books.get(indexOfBook),
-                        "id", "isbn", "categories")));
+                        "id", "isbn", "categories", "version", "updatedAt", "authorId")));
     }
 }
@@ -50,7 +50,8 @@ public class CategoryRepositoryTest {
         assertEquals(3L, actualCountOfCategories);
         for (Category expected : expectedList) {
             assertTrue(all.getContent().stream().anyMatch(e ->
-                            EqualsBuilder.reflectionEquals(e, expected, "id")),
+                            EqualsBuilder.reflectionEquals(e, expected,
+                                    "id", "version", "updatedAt")),
                     String.format(
                             "Expected category is not found in actual list: %s", expected));
         }
@@ -0,0 +1,239 @@
+package com.example.bookstore.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+import com.example.bookstore.config.CustomMySqlContainer;
+import com.example.bookstore.dto.book.BookSearchParams;
+import com.example.bookstore.model.Book;
+import com.example.bookstore.repository.StatementRecorder.RecordedStatement;
+import com.example.bookstore.repository.specifications.BookSpecificationBuilder;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs the queries generated by the book, order and shopping cart repositories against
+ * a seeded database and fails when {@code EXPLAIN} shows a full table scan for any of them.
+ */
+@SpringBootTest
+@Import(StatementRecorder.class)
+@Sql(scripts = {"/sql/clean-up.sql", "/sql/create-default-categories.sql"})
+@Sql(scripts = "/sql/clean-up.sql", executionPhase = AFTER_TEST_METHOD)
+@Sql(statements = "DELETE FROM users WHERE email LIKE 'plan-%'",
+        executionPhase = AFTER_TEST_METHOD)
+class QueryPlanTest {
+    private static final CustomMySqlContainer container = CustomMySqlContainer.getInstance();
+    private static final int AUTHORS = 50;
+    private static final int BOOKS = 2_000;
+    private static final int USERS = 100;
+    private static final int ORDERS_PER_USER = 5;
+    private static final String FULL_SCAN = "ALL";
+    private static final Pattern EMPTY_PLAN =
+            Pattern.compile("(?i)impossible where|no matching row");
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+    @Autowired
+    private ShoppingCartRepository shoppingCartRepository;
+    @Autowired
+    private CartItemRepository cartItemRepository;
+    @Autowired
+    private BookSpecificationBuilder bookSpecificationBuilder;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    private long bookId;
+    private long userId;
+    private long orderId;
+
+    @BeforeAll
+    static void beforeAll() {
+        container.start();
+    }
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> authors = new ArrayList<>();
+        for (long id = 1; id <= AUTHORS; id++) {
+            authors.add(new Object[]{id, "Author " + id});
+        }
+        List<Object[]> books = new ArrayList<>();
+        List<Object[]> bookCategories = new ArrayList<>();
+        for (long id = 1; id <= BOOKS; id++) {
+            long authorId = 1 + id % AUTHORS;
+            books.add(new Object[]{id, "Book " + id, "Author " + authorId, authorId,
+                    "isbn-" + id, BigDecimal.valueOf(id % 500, 1)});
+            bookCategories.add(new Object[]{id, 1 + id % 3});
+        }
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> carts = new ArrayList<>();
+        List<Object[]> cartItems = new ArrayList<>();
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> orderItems = new ArrayList<>();
+        long firstUserId = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(id), 0) + 1 FROM users", Long.class);
+        for (long i = 0; i < USERS; i++) {
+            long id = firstUserId + i;
+            users.add(new Object[]{id, "plan-" + id + "@example.com"});
+            carts.add(new Object[]{id, id});
+            for (long line = 0; line < 3; line++) {
+                cartItems.add(new Object[]{id, 1 + (id * 3 + line) % BOOKS});
+            }
+            for (long order = 0; order < ORDERS_PER_USER; order++) {
+                long orderId = id * ORDERS_PER_USER + order;
+                orders.add(new Object[]{orderId, id});
+                orderItems.add(new Object[]{orderId, 1 + orderId % BOOKS});
+                orderItems.add(new Object[]{orderId, 1 + (orderId + 7) % BOOKS});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO authors (id, name) VALUES (?, ?)", authors);
+        jdbcTemplate.batchUpdate("INSERT INTO books (id, title, author, author_id, isbn, price) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", books);
+        jdbcTemplate.batchUpdate("INSERT INTO books_categories (book_id, category_id) "
+                + "VALUES (?, ?)", bookCategories);
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, email, password, first_name, last_name) "
+                + "VALUES (?, ?, 'password', 'Plan', 'User')", users);
+        jdbcTemplate.batchUpdate("INSERT INTO shopping_carts (id, user_id) VALUES (?, ?)", carts);
+        jdbcTemplate.batchUpdate("INSERT INTO cart_items (shopping_cart_id, book_id, quantity) "
+                + "VALUES (?, ?, 1)", cartItems);
+        jdbcTemplate.batchUpdate("INSERT INTO orders (id, user_id, status, total, order_date, "
+                + "shipping_address) VALUES (?, ?, 0, 10, '2024-01-01', 'Address')", orders);
+        jdbcTemplate.batchUpdate("INSERT INTO order_items (order_id, book_id, quantity, price) "
+                + "VALUES (?, ?, 1, 10)", orderItems);
+        jdbcTemplate.execute("ANALYZE TABLE authors, books, books_categories, users, "
+                + "shopping_carts, cart_items, orders, order_items");
+        bookId = BOOKS / 2;
+        userId = firstUserId + USERS / 2;
+        orderId = userId * ORDERS_PER_USER;
+        StatementRecorder.drain();
+    }
+
+    @Test
+    @DisplayName("Book repository queries use an index")
+    void bookRepository_Queries_AvoidFullScans() {
+        assertIndexed("search by author", () -> bookRepository.findAll(
+                bookSpecificationBuilder.build(new BookSearchParams(
+                        new String[]{"Author 7"}, null, null)), PageRequest.of(0, 20)));
+        assertIndexed("search by price sorted by price", () -> bookRepository.findAll(
+                bookSpecificationBuilder.build(new BookSearchParams(null,
+                        BigDecimal.ONE, BigDecimal.valueOf(2))),
+                PageRequest.of(0, 20, Sort.by("price", "id"))));
+        assertIndexed("keyset page sorted by title", () -> bookRepository.findBy(
+                Specification.<Book>where(null), query -> query
+                        .sortBy(Sort.by("title", "id"))
+                        .limit(21)
+                        .scroll(ScrollPosition.forward(Map.of("title", "Book 5", "id", 5L)))));
+        assertIndexed("books of a category", () -> bookRepository.findAllByCategoriesId(2L));
+        assertIndexed("book with its categories", () -> transactionTemplate.executeWithoutResult(
+                status -> bookRepository.findById(bookId).orElseThrow().getCategories().size()));
+        assertIndexed("version bump of a category", () -> transactionTemplate
+                .executeWithoutResult(status -> bookRepository.incrementVersionsByCategoryId(2L)));
+    }
+
+    @Test
+    @DisplayName("Order repository queries use an index")
+    void orderRepository_Queries_AvoidFullScans() {
+        assertIndexed("order history page", () -> orderRepository.findAllByUserId(userId,
+                PageRequest.of(0, 2)));
+        assertIndexed("order with its items", () -> transactionTemplate.executeWithoutResult(
+                status -> orderRepository.findByIdAndUserId(orderId, userId).orElseThrow()
+                        .getOrderItems().size()));
+        String email = "plan-" + userId + "@example.com";
+        assertIndexed("order summaries", () -> orderRepository.findSummaries(email,
+                PageRequest.of(0, 20)));
+        long orderItemId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM order_items WHERE order_id = ?", Long.class, orderId);
+        assertIndexed("one order item", () -> orderItemRepository.findOrderItem(orderItemId,
+                orderId, userId));
+        assertIndexed("order items page", () -> orderItemRepository.findOrderItems(orderId,
+                userId, PageRequest.of(1, 20, Sort.by("id"))));
+        assertIndexed("order summaries after cursor", () -> orderRepository
+                .findSummariesAfter(email, LocalDateTime.of(2024, 1, 1, 0, 0), orderId,
+                        PageRequest.of(0, 20)));
+        assertIndexed("order history in a date range", () -> orderRepository
+                .findAllByUserIdInDateRange(userId, LocalDateTime.of(2023, 12, 1, 0, 0),
+                        LocalDateTime.of(2024, 2, 1, 0, 0), PageRequest.of(0, 20)));
+    }
+
+    @Test
+    @DisplayName("Shopping cart repository queries use an index")
+    void shoppingCartRepository_Queries_AvoidFullScans() {
+        assertIndexed("cart with its items", () -> transactionTemplate.executeWithoutResult(
+                status -> shoppingCartRepository.findByUserId(userId).orElseThrow()
+                        .getCartItems().size()));
+        assertIndexed("cart lines projection", () -> shoppingCartRepository
+                .findCartLinesByUserEmail("plan-" + userId + "@example.com"));
+        assertIndexed("cart version by user", () -> shoppingCartRepository
+                .findVersionByUserEmail("plan-" + userId + "@example.com"));
+        assertIndexed("changed cart lines", () -> shoppingCartRepository
+                .findCartLines(userId, List.of(1L, 2L, 3L)));
+        long itemId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM cart_items WHERE shopping_cart_id = ?", Long.class, userId);
+        String email = "plan-" + userId + "@example.com";
+        assertIndexed("cart line by item", () -> shoppingCartRepository
+                .findCartLineByItemId(itemId));
+        assertIndexed("cart item key", () -> cartItemRepository.findKeyById(itemId));
+        assertIndexed("non-empty cart check", () -> cartItemRepository
+                .existsByShoppingCartUserEmail(email));
+        assertIndexed("scoped quantity update", () -> transactionTemplate.executeWithoutResult(
+                status -> cartItemRepository.updateQuantityOfUserItem(itemId, email, 2)));
+        assertIndexed("scoped line delete", () -> transactionTemplate.executeWithoutResult(
+                status -> cartItemRepository.deleteUserItem(itemId, email)));
+        assertIndexed("checkout cart lock", () -> transactionTemplate.executeWithoutResult(
+                status -> shoppingCartRepository.incrementVersionByUserEmail(email)));
+        assertIndexed("checkout cart clear", () -> transactionTemplate.executeWithoutResult(
+                status -> cartItemRepository.softDeleteAllById(List.of(itemId))));
+    }
+
+    /**
+     * Runs the call in a transaction that is rolled back, then explains every statement it
+     * sent with the values it was bound to, against the data as it was before the call.
+     * A plan that found no row to read proves nothing, so it fails like a full scan.
+     */
+    private void assertIndexed(String description, Runnable repositoryCall) {
+        StatementRecorder.drain();
+        transactionTemplate.executeWithoutResult(status -> {
+            repositoryCall.run();
+            status.setRollbackOnly();
+        });
+        List<RecordedStatement> statements = StatementRecorder.drain();
+        assertFalse(statements.isEmpty(), description + " sent no SQL");
+        for (RecordedStatement statement : statements) {
+            List<Map<String, Object>> plan = jdbcTemplate.queryForList(
+                    "EXPLAIN " + statement.sql(), statement.parameters().toArray());
+            for (Map<String, Object> row : plan) {
+                Object type = row.get("type");
+                Object extra = row.get("Extra");
+                if (type == null || FULL_SCAN.equals(type)
+                        || extra != null && EMPTY_PLAN.matcher(extra.toString()).find()) {
+                    fail(description + " is not served by an index on " + row.get("table")
+                            + ":\n" + statement.sql() + "\n" + statement.parameters()
+                            + "\n" + plan);
+                }
+            }
+        }
+    }
+}
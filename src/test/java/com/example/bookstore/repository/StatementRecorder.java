@@ -0,0 +1,90 @@
+package com.example.bookstore.repository;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Wraps the application DataSource and keeps every prepared statement it executes,
+ * together with the values bound to it, so a test can inspect what a repository call
+ * actually sent to the database.
+ */
+public class StatementRecorder implements BeanPostProcessor {
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "addBatch");
+    private static final List<RecordedStatement> STATEMENTS = new ArrayList<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        return bean instanceof DataSource dataSource ? wrap(dataSource) : bean;
+    }
+
+    public static List<RecordedStatement> drain() {
+        synchronized (STATEMENTS) {
+            List<RecordedStatement> statements = List.copyOf(STATEMENTS);
+            STATEMENTS.clear();
+            return statements;
+        }
+    }
+
+    private static DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (method, args, result) ->
+                result instanceof Connection connection ? wrap(connection) : result);
+    }
+
+    private static Connection wrap(Connection connection) {
+        return proxy(Connection.class, connection, (method, args, result) ->
+                method.getName().equals("prepareStatement")
+                        ? wrap((PreparedStatement) result, (String) args[0]) : result);
+    }
+
+    private static PreparedStatement wrap(PreparedStatement statement, String sql) {
+        TreeMap<Integer, Object> parameters = new TreeMap<>();
+        return proxy(PreparedStatement.class, statement, (method, args, result) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer index) {
+                parameters.put(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (EXECUTE_METHODS.contains(name) && args == null) {
+                synchronized (STATEMENTS) {
+                    STATEMENTS.add(new RecordedStatement(sql,
+                            new ArrayList<>(parameters.values())));
+                }
+            }
+            return result;
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Interceptor interceptor) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    return interceptor.afterCall(method, args, result);
+                }));
+    }
+
+    /**
+     * One executed statement and its bound values in placeholder order.
+     */
+    public record RecordedStatement(String sql, List<Object> parameters) {
+    }
+
+    private interface Interceptor {
+        Object afterCall(Method method, Object[] args, Object result) throws Exception;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.bookstore.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AuthorSuggestIndexTest {
+    private AuthorSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new AuthorSuggestIndex();
+        index.add(1L, "Martin Fowler");
+        index.add(2L, "Joshua Bloch");
+        index.add(3L, "Robert Martin");
+        index.add(4L, "Martin Kleppmann");
+        index.add(5L, "Mart");
+        index.add(6L, "Joshua Bloch");
+    }
+
+    @Test
+    @DisplayName("Names starting with the prefix come back in alphabetical order")
+    void suggest_MatchingPrefix_ReturnsSortedNames() {
+        assertEquals(List.of("Mart", "Martin Fowler", "Martin Kleppmann"),
+                index.suggest("mar", 10));
+        assertEquals(List.of("Martin Fowler", "Martin Kleppmann"),
+                index.suggest("MARTIN ", 10));
+    }
+
+    @Test
+    @DisplayName("Suggestions stop at the limit")
+    void suggest_Limit_TruncatesResult() {
+        assertEquals(List.of("Joshua Bloch", "Mart"), index.suggest("", 2));
+    }
+
+    @Test
+    @DisplayName("An unknown prefix or one ending inside an edge is handled")
+    void suggest_PartialEdges_MatchesOnlyRealPrefixes() {
+        assertEquals(List.of("Martin Kleppmann"), index.suggest("martin k", 10));
+        assertEquals(List.of(), index.suggest("martin x", 10));
+        assertEquals(List.of(), index.suggest("z", 10));
+    }
+
+    @Test
+    @DisplayName("Duplicates are counted once and clear empties the index")
+    void addAndClear_UpdateSize() {
+        assertEquals(5, index.size());
+
+        index.clear();
+
+        assertEquals(0, index.size());
+        assertEquals(List.of(), index.suggest("m", 10));
+    }
+
+    @Test
+    @DisplayName("A name leaves the index with the last book of its author")
+    void remove_LastBookOfAuthor_DropsName() {
+        index.remove(2L);
+        index.add(5L, "Martin Fowler");
+
+        assertEquals(List.of("Joshua Bloch", "Martin Fowler", "Martin Kleppmann",
+                "Robert Martin"), index.suggest("", 10));
+
+        index.remove(6L);
+        index.remove(1L);
+        index.remove(5L);
+
+        assertEquals(List.of("Martin Kleppmann"), index.suggest("mar", 10));
+        assertEquals(List.of(), index.suggest("j", 10));
+        assertEquals(2, index.size());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.bookstore.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.bookstore.dto.book.BookFacetsDto;
+import com.example.bookstore.dto.book.FacetCountDto;
+import com.example.bookstore.dto.book.PriceBucketDto;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BookFacetIndexTest {
+    private BookFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookFacetIndex(new BigDecimal[]{new BigDecimal("20"), BigDecimal.TEN}, 2);
+        index.index(1L, "Bloch", new BigDecimal("9.99"), List.of(1L));
+        index.index(2L, "Bloch", new BigDecimal("10.00"), List.of(1L, 2L));
+        index.index(3L, "Martin", new BigDecimal("35.50"), List.of(2L));
+        index.index(4L, "Fowler", new BigDecimal("15"), List.of());
+        index.index(5L, "Martin", new BigDecimal("12"), List.of(3L));
+    }
+
+    @Test
+    @DisplayName("Without filters every book is counted once per facet")
+    void count_NoFilters_CountsAllBooks() {
+        BookFacetsDto facets = index.count(null, null, null);
+
+        assertEquals(5, facets.getTotal());
+        assertEquals(List.of(new FacetCountDto<>("Bloch", 2L), new FacetCountDto<>("Martin", 2L)),
+                facets.getAuthors());
+        assertEquals(List.of(
+                new PriceBucketDto(BigDecimal.ZERO, BigDecimal.TEN, 1),
+                new PriceBucketDto(BigDecimal.TEN, new BigDecimal("20"), 3),
+                new PriceBucketDto(new BigDecimal("20"), null, 1)), facets.getPrices());
+        assertEquals(List.of(new FacetCountDto<>(1L, 2L), new FacetCountDto<>(2L, 2L),
+                new FacetCountDto<>(3L, 1L)), facets.getCategories());
+    }
+
+    @Test
+    @DisplayName("Author and price facets ignore their own filter, categories follow both")
+    void count_AuthorAndPriceFilters_CountsDisjunctively() {
+        BookFacetsDto facets = index.count(new String[]{"Martin"},
+                BigDecimal.TEN, new BigDecimal("20"));
+
+        assertEquals(1, facets.getTotal());
+        assertEquals(List.of(new FacetCountDto<>("Bloch", 1L), new FacetCountDto<>("Fowler", 1L)),
+                facets.getAuthors());
+        assertEquals(List.of(0L, 1L, 1L),
+                facets.getPrices().stream().map(PriceBucketDto::getCount).toList());
+        assertEquals(List.of(new FacetCountDto<>(3L, 1L)), facets.getCategories());
+    }
+
+    @Test
+    @DisplayName("Updated, removed books and deleted categories are reflected in the counts")
+    void count_AfterWrites_ReflectsChanges() {
+        index.index(1L, "Fowler", new BigDecimal("9.99"), List.of(1L));
+        index.remove(3L);
+        index.removeCategory(1L);
+
+        BookFacetsDto facets = index.count(null, null, null);
+
+        assertEquals(4, facets.getTotal());
+        assertEquals(List.of(new FacetCountDto<>("Fowler", 2L), new FacetCountDto<>("Bloch", 1L)),
+                facets.getAuthors());
+        assertEquals(List.of(new FacetCountDto<>(2L, 1L), new FacetCountDto<>(3L, 1L)),
+                facets.getCategories());
+    }
+}
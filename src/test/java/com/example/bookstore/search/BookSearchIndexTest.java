@@ -0,0 +1,79 @@
+package com.example.bookstore.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BookSearchIndexTest {
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex();
+        index.index(1L, "Effective Java", "Joshua Bloch", "Best practices for the Java platform");
+        index.index(2L, "Java Concurrency in Practice", "Brian Goetz", "Threads and locks");
+        index.index(3L, "Clean Code", "Robert Martin", "A handbook of agile craftsmanship");
+    }
+
+    @Test
+    @DisplayName("Search ranks title matches above description-only matches")
+    void search_TitleMatch_RankedFirst() {
+        index.index(4L, "Cooking", "Chef", "Not about java at all, mostly about pasta and sauce");
+
+        List<Long> actual = index.search("java", 10);
+
+        assertEquals(List.of(1L, 2L, 4L), actual);
+    }
+
+    @Test
+    @DisplayName("Search requires every query term, ignoring case and punctuation")
+    void search_MultipleTerms_ReturnsOnlyBooksWithAllTerms() {
+        assertEquals(List.of(2L), index.search("JAVA, practice!", 10));
+        assertEquals(List.of(1L), index.search("bloch java", 10));
+        assertTrue(index.search("java pasta", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Search returns at most limit books")
+    void search_Limit_ReturnsTopBooks() {
+        assertEquals(List.of(1L), index.search("java", 1));
+    }
+
+    @Test
+    @DisplayName("A limit far above the number of matches is not allocated up front")
+    void search_HugeLimit_ReturnsAllMatches() {
+        assertEquals(List.of(1L, 2L), index.search("java", Integer.MAX_VALUE));
+        assertEquals(List.of(2L), index.search("java practice", Integer.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Re-indexing a book replaces its old terms")
+    void index_ExistingBook_ReplacesTerms() {
+        index.index(3L, "Refactoring", "Martin Fowler", "Improving existing code");
+
+        assertTrue(index.search("clean", 10).isEmpty());
+        assertEquals(List.of(3L), index.search("refactoring", 10));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    @DisplayName("Removed book is not found anymore")
+    void remove_ExistingBook_NotSearchable() {
+        index.remove(1L);
+
+        assertEquals(List.of(2L), index.search("java", 10));
+        assertTrue(index.search("bloch", 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("Blank query and stop words only return nothing")
+    void search_BlankQuery_ReturnsEmptyList() {
+        assertTrue(index.search("  ", 10).isEmpty());
+        assertTrue(index.search("the of", 10).isEmpty());
+    }
+}
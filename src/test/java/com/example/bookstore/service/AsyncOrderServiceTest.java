@@ -0,0 +1,105 @@
+package com.example.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bookstore.dto.order.OrderDto;
+import com.example.bookstore.dto.order.PostOrderRequestDto;
+import com.example.bookstore.exception.InsufficientStockException;
+import com.example.bookstore.exception.OrderQueueFullException;
+import com.example.bookstore.service.impl.AsyncOrderServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncOrderServiceTest {
+    private final Authentication authentication =
+            new UsernamePasswordAuthenticationToken("user@example.com", null);
+    private final PostOrderRequestDto request = new PostOrderRequestDto();
+    @Mock
+    private OrderService orderService;
+    private MeterRegistry meterRegistry;
+    private AsyncOrderServiceImpl asyncOrderService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        asyncOrderService = new AsyncOrderServiceImpl(orderService, meterRegistry, 1, 1);
+        request.setShippingAddress("Kyiv, Shevchenko 1");
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        asyncOrderService.shutdown();
+    }
+
+    @Test
+    @DisplayName("An accepted order is returned at once and checked out on a worker")
+    void placeOrder_Accepted_ProcessesOnWorker() {
+        when(orderService.acceptOrder(authentication, request)).thenReturn(order(50L));
+
+        OrderDto accepted = asyncOrderService.placeOrder(authentication, request);
+
+        assertEquals(50L, accepted.getId());
+        verify(orderService, timeout(5_000)).processAcceptedOrder(50L);
+    }
+
+    @Test
+    @DisplayName("A failed checkout cancels the accepted order")
+    void placeOrder_CheckoutFails_CancelsOrder() {
+        when(orderService.acceptOrder(authentication, request)).thenReturn(order(50L));
+        doThrow(new InsufficientStockException("sold out"))
+                .when(orderService).processAcceptedOrder(50L);
+
+        asyncOrderService.placeOrder(authentication, request);
+
+        verify(orderService, timeout(5_000)).cancelAcceptedOrder(50L);
+    }
+
+    @Test
+    @DisplayName("Orders beyond the workers and the queue are refused before saving")
+    void placeOrder_QueueFull_ThrowsException() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(orderService.acceptOrder(authentication, request))
+                .thenReturn(order(50L), order(51L));
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(orderService).processAcceptedOrder(50L);
+        asyncOrderService.placeOrder(authentication, request);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        asyncOrderService.placeOrder(authentication, request);
+
+        assertThrows(OrderQueueFullException.class,
+                () -> asyncOrderService.placeOrder(authentication, request));
+        assertEquals(1.0, meterRegistry.get("orders.async.queue.depth").gauge().value());
+        release.countDown();
+        verify(orderService, timeout(5_000)).processAcceptedOrder(51L);
+    }
+
+    private OrderDto order(Long id) {
+        OrderDto order = new OrderDto();
+        order.setId(id);
+        order.setStatus("PENDING");
+        return order;
+    }
+}
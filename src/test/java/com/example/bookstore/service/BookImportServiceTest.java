@@ -0,0 +1,135 @@
+package com.example.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bookstore.dto.book.BookImportErrorDto;
+import com.example.bookstore.dto.book.BookImportReportDto;
+import com.example.bookstore.event.BookSavedEvent;
+import com.example.bookstore.export.BookExportFormat;
+import com.example.bookstore.model.Category;
+import com.example.bookstore.repository.BookImportRepository;
+import com.example.bookstore.repository.CategoryRepository;
+import com.example.bookstore.service.impl.BookImportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+public class BookImportServiceTest {
+    private static final String HEADER = "title,author,isbn,price,categoryIds\n";
+    @Mock
+    private BookImportRepository bookImportRepository;
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    private BookImportService bookImportService;
+
+    @BeforeEach
+    void setUp() {
+        bookImportService = new BookImportServiceImpl(bookImportRepository, categoryRepository,
+                Validation.buildDefaultValidatorFactory().getValidator(), transactionTemplate,
+                eventPublisher, new ObjectMapper());
+        ReflectionTestUtils.setField(bookImportService, "batchSize", 2);
+        ReflectionTestUtils.setField(bookImportService, "maxReportedErrors", 10);
+        Category category = new Category();
+        category.setId(1L);
+        when(categoryRepository.findAll()).thenReturn(List.of(category));
+    }
+
+    @Test
+    @DisplayName("Valid rows are inserted in batches, invalid rows are reported by line")
+    void importBooks_MixedRows_InsertsValidAndReportsInvalid() throws Exception {
+        runTransactionCallbacks();
+        when(bookImportRepository.findExistingIsbns(anyList()))
+                .thenReturn(Set.of())
+                .thenReturn(Set.of("3", "4"))
+                .thenReturn(Set.of());
+        when(bookImportRepository.insertBooks(anyList()))
+                .thenReturn(Map.of("4", 11L, "1", 10L))
+                .thenReturn(Map.of("8", 12L));
+
+        BookImportReportDto report = importCsv(HEADER
+                + "A,Author,1,10,1\n"
+                + ",Author,2,10,\n"
+                + "B,Author,4,10,\n"
+                + "C,Author,3,10,\n"
+                + "D,Author,5,-1,\n"
+                + "E,Author,6,10,7\n"
+                + "F,Author,4,10,\n"
+                + "G,Author,8,10,\n");
+
+        assertEquals(3, report.getImported());
+        assertEquals(5, report.getRejected());
+        assertEquals(List.of(
+                new BookImportErrorDto(3, "title must not be blank"),
+                new BookImportErrorDto(6, "price must be greater than or equal to 0"),
+                new BookImportErrorDto(7, "categories [7] not found"),
+                new BookImportErrorDto(5, "book with isbn 3 already exists"),
+                new BookImportErrorDto(8, "book with isbn 4 already exists")),
+                report.getErrors());
+        verify(bookImportRepository, times(2)).insertBooks(anyList());
+        verify(bookImportRepository, times(2)).insertBookCategories(anyList());
+        verify(bookImportRepository).insertBookCategories(argThat(links -> links.size() == 1
+                && Arrays.equals(links.get(0), new Object[]{10L, 1L})));
+        verify(eventPublisher, times(3)).publishEvent(any(BookSavedEvent.class));
+    }
+
+    @Test
+    @DisplayName("A failed batch is retried row by row so only the broken row is rejected")
+    void importBooks_BatchFails_RetriesRowByRow() throws Exception {
+        runTransactionCallbacks();
+        when(bookImportRepository.findExistingIsbns(anyList())).thenReturn(Set.of());
+        when(bookImportRepository.insertBooks(anyList()))
+                .thenThrow(new DataIntegrityViolationException("batch"))
+                .thenReturn(Map.of("1", 10L))
+                .thenThrow(new DataIntegrityViolationException("Data too long"));
+
+        BookImportReportDto report = importCsv(HEADER
+                + "A,Author,1,10,\n"
+                + "B,Author,2,10,\n");
+
+        assertEquals(1, report.getImported());
+        assertEquals(List.of(new BookImportErrorDto(3, "could not be saved: Data too long")),
+                report.getErrors());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionCallbacks() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any(Consumer.class));
+    }
+
+    private BookImportReportDto importCsv(String csv) throws Exception {
+        return bookImportService.importBooks(BookExportFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+import com.example.bookstore.config.CustomMySqlContainer;
+import com.example.bookstore.dto.book.BookDto;
+import com.example.bookstore.dto.book.BookSearchParams;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Sql(scripts = {"/sql/clean-up.sql", "/sql/create-default-categories.sql"})
+@Sql(scripts = "/sql/clean-up.sql", executionPhase = AFTER_TEST_METHOD)
+class BookServiceStatementCountTest {
+    private static final CustomMySqlContainer container = CustomMySqlContainer.getInstance();
+    private static final int BOOKS = 100;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    private Statistics statistics;
+
+    @BeforeAll
+    static void beforeAll() {
+        container.start();
+    }
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> authors = new ArrayList<>();
+        for (long id = 0; id < 7; id++) {
+            authors.add(new Object[]{id + 1, "Author " + id});
+        }
+        List<Object[]> books = new ArrayList<>();
+        List<Object[]> bookCategories = new ArrayList<>();
+        for (long id = 1; id <= BOOKS; id++) {
+            books.add(new Object[]{id, "Book " + id, "Author " + id % 7, id % 7 + 1,
+                    "isbn-" + id, BigDecimal.valueOf(id)});
+            bookCategories.add(new Object[]{id, 1 + id % 3});
+            bookCategories.add(new Object[]{id, 1 + (id + 1) % 3});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO authors (id, name) VALUES (?, ?)", authors);
+        jdbcTemplate.batchUpdate("INSERT INTO books (id, title, author, author_id, isbn, price) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", books);
+        jdbcTemplate.batchUpdate("INSERT INTO books_categories (book_id, category_id) "
+                + "VALUES (?, ?)", bookCategories);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Mapping a page of books loads categories in one batch, whatever the page size")
+    void findAll_PageOfBooks_ConstantStatementCount() {
+        long smallPageStatements = countStatements(() ->
+                assertEquals(10, bookService.findAll(PageRequest.of(0, 10)).size()));
+        long fullPageStatements = countStatements(() -> {
+            List<BookDto> page = bookService.findAll(PageRequest.of(0, BOOKS));
+            assertEquals(BOOKS, page.size());
+            page.forEach(book -> assertEquals(2, book.getCategoryIds().size()));
+        });
+
+        assertEquals(3, fullPageStatements, "page select, count and one category batch");
+        assertEquals(smallPageStatements, fullPageStatements);
+    }
+
+    @Test
+    @DisplayName("Mapping a page of search results loads categories in one batch")
+    void search_PageOfBooks_ConstantStatementCount() {
+        BookSearchParams params = new BookSearchParams(null,
+                BigDecimal.ZERO, BigDecimal.valueOf(BOOKS));
+
+        long statements = countStatements(() -> assertEquals(BOOKS,
+                bookService.search(params, PageRequest.of(0, BOOKS)).size()));
+
+        assertEquals(3, statements, "page select, count and one category batch");
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -4,17 +4,24 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import com.example.bookstore.dto.book.BookDto;
 import com.example.bookstore.dto.book.BookDtoWithoutCategoryIds;
+import com.example.bookstore.dto.book.BookFacetedPageDto;
+import com.example.bookstore.dto.book.BookFacetsDto;
 import com.example.bookstore.dto.book.BookSearchParams;
 import com.example.bookstore.dto.book.CreateBookRequestDto;
+import com.example.bookstore.event.BookSavedEvent;
 import com.example.bookstore.mapper.BookMapper;
 import com.example.bookstore.model.Book;
+import com.example.bookstore.repository.AuthorRepository;
 import com.example.bookstore.repository.BookRepository;
 import com.example.bookstore.repository.specifications.BookSpecificationBuilder;
+import com.example.bookstore.search.BookFacetIndex;
+import com.example.bookstore.search.BookSearchIndex;
 import com.example.bookstore.service.impl.BookServiceImpl;
 import com.example.bookstore.util.TestUtil;
 import java.math.BigDecimal;
@@ -29,19 +36,30 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class BookServiceTest {
     @Mock
     private BookRepository bookRepository;
     @Mock
+    private AuthorRepository authorRepository;
+    @Mock
     private BookMapper bookMapper;
     @Mock
     private BookSpecificationBuilder specificationBuilder;
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+    @Mock
+    private BookFacetIndex bookFacetIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private BookServiceImpl bookService;
     private Book book;
@@ -61,13 +79,16 @@ class BookServiceTest {
         when(bookMapper.toModel(requestDto)).thenReturn(book);
         when(bookMapper.toDto(book)).thenReturn(bookDto);
         when(bookRepository.save(book)).thenReturn(book);
+        when(authorRepository.findIdByName(requestDto.getAuthor())).thenReturn(Optional.of(7L));
 
         BookDto actual = bookService.save(requestDto);
 
         assertTrue(EqualsBuilder.reflectionEquals(actual, bookDto));
         verify(bookRepository).save(book);
+        assertEquals(7L, book.getAuthorId());
         verify(bookMapper).toDto(book);
         verify(bookMapper).toModel(requestDto);
+        verify(eventPublisher).publishEvent(new BookSavedEvent(bookDto));
         verifyNoMoreInteractions(bookMapper, bookRepository);
     }
 
@@ -131,6 +152,7 @@ class BookServiceTest {
         when(bookRepository.save(any(Book.class))).thenReturn(updatedBook);
         when(bookMapper.toModel(requestDto)).thenReturn(updatedBook);
         when(bookMapper.toDto(updatedBook)).thenReturn(bookDto);
+        when(authorRepository.findIdByName(requestDto.getAuthor())).thenReturn(Optional.of(7L));
 
         BookDto actualBookDto = bookService.update(bookDto.getId(), requestDto);
         verify(bookRepository).save(bookCaptor.capture());
@@ -173,6 +195,62 @@ class BookServiceTest {
         verifyNoMoreInteractions(bookRepository, bookMapper, specificationBuilder);
     }
 
+    @Test
+    @DisplayName("Search with facets returns the page and facet counts for the same params")
+    void searchWithFacets_Valid_ReturnsPageAndFacets() {
+        String[] authors = {"Joshua Bloch"};
+        BookSearchParams params = new BookSearchParams(authors,
+                BigDecimal.ONE, BigDecimal.TEN);
+        Specification<Book> specification = (root, query, criteriaBuilder) -> null;
+        Pageable pageable = Pageable.ofSize(10);
+        BookFacetsDto facets = new BookFacetsDto(1, List.of(), List.of(), List.of());
+        when(specificationBuilder.build(params)).thenReturn(specification);
+        when(bookRepository.findAll(specification, pageable))
+                .thenReturn(new PageImpl<>(List.of(book), pageable, 1));
+        when(bookMapper.toDto(book)).thenReturn(bookDto);
+        when(bookFacetIndex.count(authors, BigDecimal.ONE, BigDecimal.TEN)).thenReturn(facets);
+
+        BookFacetedPageDto actual = bookService.searchWithFacets(params, pageable);
+
+        assertEquals(new BookFacetedPageDto(List.of(bookDto), facets), actual);
+        verify(bookFacetIndex).count(authors, BigDecimal.ONE, BigDecimal.TEN);
+        verifyNoMoreInteractions(bookFacetIndex);
+    }
+
+    @Test
+    @DisplayName("Full-text search returns books in index rank order")
+    void fullTextSearch_Valid_ReturnsBooksInRankOrder() {
+        Book secondBook = TestUtil.createBook(TestUtil.createBookRequestDto(
+                "Java Puzzlers", "Joshua Bloch", 30));
+        book.setId(1L);
+        secondBook.setId(2L);
+        BookDto secondBookDto = TestUtil.createBookDto(secondBook);
+        Pageable pageable = Pageable.ofSize(10);
+        when(bookSearchIndex.search("bloch", 10)).thenReturn(List.of(2L, 1L));
+        when(bookRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(book, secondBook));
+        when(bookMapper.toDto(book)).thenReturn(bookDto);
+        when(bookMapper.toDto(secondBook)).thenReturn(secondBookDto);
+
+        List<BookDto> actual = bookService.fullTextSearch("bloch", pageable);
+
+        assertEquals(List.of(secondBookDto, bookDto), actual);
+        verify(bookSearchIndex).search("bloch", 10);
+        verify(bookRepository).findAllById(List.of(2L, 1L));
+        verifyNoMoreInteractions(bookRepository, bookSearchIndex);
+    }
+
+    @Test
+    @DisplayName("Full-text search past the maximum offset returns an empty page")
+    void fullTextSearch_OffsetBeyondMax_ReturnsEmptyPage() {
+        ReflectionTestUtils.setField(bookService, "maxSearchOffset", 1000);
+
+        List<BookDto> actual = bookService.fullTextSearch("bloch",
+                PageRequest.of(Integer.MAX_VALUE / 20, 20));
+
+        assertTrue(actual.isEmpty());
+        verifyNoInteractions(bookRepository, bookSearchIndex);
+    }
+
     @Test
     @DisplayName("Find all books by category ID returns list of BookDtoWithoutCategoryIds")
     void findAllByCategoryId_Valid_ReturnsListOfBooksDto() {
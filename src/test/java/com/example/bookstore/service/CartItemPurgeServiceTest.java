@@ -0,0 +1,103 @@
+package com.example.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bookstore.dto.cart.CartItemPurgeReportDto;
+import com.example.bookstore.repository.CartItemPurgeRepository;
+import com.example.bookstore.service.impl.CartItemPurgeServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+public class CartItemPurgeServiceTest {
+    @Mock
+    private CartItemPurgeRepository cartItemPurgeRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    private MeterRegistry meterRegistry;
+    private CartItemPurgeService cartItemPurgeService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cartItemPurgeService = new CartItemPurgeServiceImpl(cartItemPurgeRepository,
+                transactionTemplate, meterRegistry);
+        ReflectionTestUtils.setField(cartItemPurgeService, "archive", true);
+        ReflectionTestUtils.setField(cartItemPurgeService, "batchSize", 2);
+        ReflectionTestUtils.setField(cartItemPurgeService, "maxRowsPerSecond", 0);
+        ReflectionTestUtils.setField(cartItemPurgeService, "maxRowsPerRun", 100L);
+        ReflectionTestUtils.setField(cartItemPurgeService, "abandonedAfter",
+                Duration.ofDays(90));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("Deleted lines are archived in keyset batches, skipping lines revived since")
+    void purge_DeletedLines_ArchivesBatchesAfterLastId() {
+        when(cartItemPurgeRepository.findDeletedIds(0L, 2)).thenReturn(List.of(1L, 2L));
+        when(cartItemPurgeRepository.findDeletedIds(2L, 2)).thenReturn(List.of(5L));
+        when(cartItemPurgeRepository.findDeletedIds(5L, 2)).thenReturn(List.of());
+        when(cartItemPurgeRepository.lockDeleted(List.of(1L, 2L))).thenReturn(List.of(1L));
+        when(cartItemPurgeRepository.lockDeleted(List.of(5L))).thenReturn(List.of(5L));
+        when(cartItemPurgeRepository.delete(List.of(1L))).thenReturn(1);
+        when(cartItemPurgeRepository.delete(List.of(5L))).thenReturn(1);
+        when(cartItemPurgeRepository.findAbandonedIds(any(LocalDateTime.class), eq(0L),
+                eq(2))).thenReturn(List.of());
+
+        CartItemPurgeReportDto report = cartItemPurgeService.purge();
+
+        assertEquals(2, report.getDeletedLines());
+        assertEquals(0, report.getAbandonedLines());
+        verify(cartItemPurgeRepository).archive(List.of(1L));
+        verify(cartItemPurgeRepository).archive(List.of(5L));
+        verify(cartItemPurgeRepository, never()).incrementCartVersions(anyList());
+        assertEquals(2.0, meterRegistry.get("cart.purge.rows")
+                .tags("reason", "deleted", "action", "archived").counter().count());
+    }
+
+    @Test
+    @DisplayName("Abandoned lines bump their cart versions and stop at the per-run limit")
+    void purge_AbandonedLinesOverLimit_DeletesUpToLimit() {
+        ReflectionTestUtils.setField(cartItemPurgeService, "archive", false);
+        ReflectionTestUtils.setField(cartItemPurgeService, "maxRowsPerRun", 3L);
+        when(cartItemPurgeRepository.findDeletedIds(0L, 2)).thenReturn(List.of());
+        when(cartItemPurgeRepository.findAbandonedIds(any(LocalDateTime.class), eq(0L),
+                eq(2))).thenReturn(List.of(3L, 4L));
+        when(cartItemPurgeRepository.findAbandonedIds(any(LocalDateTime.class), eq(4L),
+                eq(1))).thenReturn(List.of(7L));
+        when(cartItemPurgeRepository.lockAbandoned(anyList(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(cartItemPurgeRepository.delete(anyList()))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+
+        CartItemPurgeReportDto report = cartItemPurgeService.purge();
+
+        assertEquals(0, report.getDeletedLines());
+        assertEquals(3, report.getAbandonedLines());
+        verify(cartItemPurgeRepository).incrementCartVersions(List.of(3L, 4L));
+        verify(cartItemPurgeRepository).incrementCartVersions(List.of(7L));
+        verify(cartItemPurgeRepository, never()).archive(anyList());
+        verify(cartItemPurgeRepository, never()).findAbandonedIds(any(LocalDateTime.class),
+                eq(7L), anyInt());
+    }
+}
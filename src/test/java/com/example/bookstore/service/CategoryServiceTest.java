@@ -8,8 +8,10 @@ import static org.mockito.Mockito.when;
 
 import com.example.bookstore.dto.category.CategoryDto;
 import com.example.bookstore.dto.category.CategoryRequestDto;
+import com.example.bookstore.event.CategoryDeletedEvent;
 import com.example.bookstore.mapper.CategoryMapper;
 import com.example.bookstore.model.Category;
+import com.example.bookstore.repository.BookRepository;
 import com.example.bookstore.repository.CategoryRepository;
 import com.example.bookstore.service.impl.CategoryServiceImpl;
 import com.example.bookstore.util.TestUtil;
@@ -24,6 +26,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -35,6 +38,10 @@ public class CategoryServiceTest {
     private CategoryRepository categoryRepository;
     @Mock
     private CategoryMapper categoryMapper;
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private CategoryServiceImpl categoryService;
     private Category category;
@@ -126,7 +133,9 @@ public class CategoryServiceTest {
         Long idToDelete = 123L;
         categoryService.deleteById(idToDelete);
 
+        verify(bookRepository).incrementVersionsByCategoryId(idToDelete);
         verify(categoryRepository).deleteById(idToDelete);
+        verify(eventPublisher).publishEvent(new CategoryDeletedEvent(idToDelete));
         verifyNoMoreInteractions(categoryRepository);
     }
 }
@@ -0,0 +1,162 @@
+package com.example.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bookstore.dto.order.OrderDto;
+import com.example.bookstore.dto.order.PostOrderRequestDto;
+import com.example.bookstore.dto.order.StoredOrderResponse;
+import com.example.bookstore.exception.IdempotencyKeyException;
+import com.example.bookstore.repository.OrderIdempotencyKeyRepository;
+import com.example.bookstore.service.impl.IdempotentOrderServiceImpl;
+import com.example.bookstore.service.impl.LockFailureRetry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotentOrderServiceTest {
+    private static final String EMAIL = "user@example.com";
+    private static final String KEY = "3f1c5e0a-checkout";
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Authentication authentication =
+            new UsernamePasswordAuthenticationToken(EMAIL, null);
+    @Mock
+    private OrderService orderService;
+    @Mock
+    private OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    private IdempotentOrderService idempotentOrderService;
+    private PostOrderRequestDto request;
+    private OrderDto order;
+
+    @BeforeEach
+    void setUp() {
+        idempotentOrderService = new IdempotentOrderServiceImpl(orderService,
+                orderIdempotencyKeyRepository, transactionTemplate, new LockFailureRetry(3),
+                objectMapper, 100, Duration.ofMinutes(10), Duration.ofSeconds(5),
+                Duration.ofDays(1));
+        request = new PostOrderRequestDto();
+        request.setShippingAddress("Kyiv, Shevchenko 1");
+        order = new OrderDto();
+        order.setId(50L);
+        order.setTotal(BigDecimal.TEN);
+        order.setStatus("NEW");
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("A repeated key returns the first order from memory without checkout")
+    void placeOrder_RepeatedKey_ReturnsFirstOrder() {
+        when(orderIdempotencyKeyRepository.claim(eq(EMAIL), anyString(), anyString()))
+                .thenReturn(true);
+        when(orderService.placeOrder(authentication, request)).thenReturn(order);
+
+        OrderDto first = idempotentOrderService.placeOrder(authentication, KEY, request);
+        OrderDto replay = idempotentOrderService.placeOrder(authentication, KEY, request);
+
+        assertEquals(order, first);
+        assertEquals(order, replay);
+        verify(orderService, times(1)).placeOrder(authentication, request);
+        verify(orderIdempotencyKeyRepository).complete(eq(EMAIL), anyString(), eq(50L),
+                anyString());
+    }
+
+    @Test
+    @DisplayName("A key already stored by another instance returns the stored order")
+    void placeOrder_KeyTakenInDatabase_ReturnsStoredOrder() throws Exception {
+        PostOrderRequestDto sameRequest = new PostOrderRequestDto();
+        sameRequest.setShippingAddress(request.getShippingAddress());
+        when(orderIdempotencyKeyRepository.claim(eq(EMAIL), anyString(), anyString()))
+                .thenReturn(true)
+                .thenReturn(false);
+        when(orderService.placeOrder(authentication, request)).thenReturn(order);
+        idempotentOrderService.placeOrder(authentication, KEY, request);
+        IdempotentOrderService otherInstance = new IdempotentOrderServiceImpl(orderService,
+                orderIdempotencyKeyRepository, transactionTemplate, new LockFailureRetry(3),
+                objectMapper, 100, Duration.ofMinutes(10), Duration.ofSeconds(5),
+                Duration.ofDays(1));
+        ArgumentCaptor<String> requestHash = ArgumentCaptor.forClass(String.class);
+        verify(orderIdempotencyKeyRepository).claim(eq(EMAIL), anyString(),
+                requestHash.capture());
+        when(orderIdempotencyKeyRepository.findForShare(eq(EMAIL), anyString()))
+                .thenReturn(Optional.of(new StoredOrderResponse(requestHash.getValue(),
+                        objectMapper.writeValueAsString(order))));
+
+        OrderDto replay = otherInstance.placeOrder(authentication, KEY, sameRequest);
+
+        assertEquals(order, replay);
+        verify(orderService, times(1)).placeOrder(any(), any());
+    }
+
+    @Test
+    @DisplayName("A key reused with a different request is rejected")
+    void placeOrder_KeyReusedWithOtherRequest_ThrowsException() {
+        when(orderIdempotencyKeyRepository.claim(eq(EMAIL), anyString(), anyString()))
+                .thenReturn(true);
+        when(orderService.placeOrder(authentication, request)).thenReturn(order);
+        idempotentOrderService.placeOrder(authentication, KEY, request);
+        PostOrderRequestDto otherRequest = new PostOrderRequestDto();
+        otherRequest.setShippingAddress("Lviv, Rynok 2");
+
+        assertThrows(IdempotencyKeyException.class,
+                () -> idempotentOrderService.placeOrder(authentication, KEY, otherRequest));
+        verify(orderService, never()).placeOrder(authentication, otherRequest);
+    }
+
+    @Test
+    @DisplayName("A concurrent duplicate waits for the first attempt and gets its order")
+    void placeOrder_ConcurrentDuplicate_WaitsForFirstAttempt() throws Exception {
+        CountDownLatch checkoutStarted = new CountDownLatch(1);
+        CountDownLatch releaseCheckout = new CountDownLatch(1);
+        when(orderIdempotencyKeyRepository.claim(eq(EMAIL), anyString(), anyString()))
+                .thenReturn(true);
+        when(orderService.placeOrder(authentication, request)).thenAnswer(invocation -> {
+            checkoutStarted.countDown();
+            releaseCheckout.await(5, TimeUnit.SECONDS);
+            return order;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<OrderDto> first = executor.submit(() ->
+                    idempotentOrderService.placeOrder(authentication, KEY, request));
+            checkoutStarted.await(5, TimeUnit.SECONDS);
+            final Future<OrderDto> duplicate = executor.submit(() ->
+                    idempotentOrderService.placeOrder(authentication, KEY, request));
+            Thread.sleep(100);
+            releaseCheckout.countDown();
+
+            assertEquals(order, first.get(5, TimeUnit.SECONDS));
+            assertEquals(order, duplicate.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(orderService, times(1)).placeOrder(authentication, request);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.bookstore.service.impl.LockFailureRetry;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+
+class LockFailureRetryTest {
+    private final LockFailureRetry lockFailureRetry = new LockFailureRetry(3);
+
+    @Test
+    @DisplayName("A transaction chosen as deadlock victim runs again")
+    void execute_DeadlockOnce_RunsAgain() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = lockFailureRetry.execute(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new DeadlockLoserDataAccessException("Deadlock", null);
+            }
+            return "placed";
+        });
+
+        assertEquals("placed", result);
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Lock conflicts on every attempt give up after the configured attempts")
+    void execute_AlwaysLocked_ThrowsAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(CannotAcquireLockException.class, () -> lockFailureRetry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new CannotAcquireLockException("Lock wait timeout");
+        }));
+
+        assertEquals(3, attempts.get());
+    }
+}
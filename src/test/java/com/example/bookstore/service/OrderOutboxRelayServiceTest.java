@@ -0,0 +1,74 @@
+package com.example.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bookstore.outbox.InMemoryOrderEventSink;
+import com.example.bookstore.outbox.OrderEvent;
+import com.example.bookstore.repository.OrderOutboxRepository;
+import com.example.bookstore.service.impl.OrderOutboxRelayServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class OrderOutboxRelayServiceTest {
+    private final InMemoryOrderEventSink sink = new InMemoryOrderEventSink();
+    @Mock
+    private OrderOutboxRepository orderOutboxRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private OrderOutboxRelayServiceImpl relayService;
+
+    @BeforeEach
+    void setUp() {
+        relayService = new OrderOutboxRelayServiceImpl(orderOutboxRepository, sink,
+                transactionManager, new SimpleMeterRegistry(), true, 2, 100);
+    }
+
+    @Test
+    @DisplayName("Events are delivered in id order, batch by batch, and then deleted")
+    void relay_ThreeEvents_DeliversInOrderedBatches() {
+        List<OrderEvent> first = List.of(event(1L), event(2L));
+        List<OrderEvent> second = List.of(event(3L));
+        when(orderOutboxRepository.lockOldest(2)).thenReturn(first, second);
+
+        assertEquals(3, relayService.relay());
+
+        assertEquals(List.of(1L, 2L, 3L), sink.getEvents().stream()
+                .map(OrderEvent::id)
+                .toList());
+        verify(orderOutboxRepository).delete(List.of(1L, 2L));
+        verify(orderOutboxRepository).delete(List.of(3L));
+    }
+
+    @Test
+    @DisplayName("A batch the sink refuses stays in the outbox and is delivered next run")
+    void relay_SinkFails_RedeliversBatch() {
+        List<OrderEvent> batch = List.of(event(1L));
+        when(orderOutboxRepository.lockOldest(2)).thenReturn(batch);
+        sink.failNext();
+
+        assertEquals(0, relayService.relay());
+        verify(orderOutboxRepository, never()).delete(any());
+        verify(transactionManager).rollback(any());
+
+        assertEquals(1, relayService.relay());
+        assertEquals(batch, sink.getEvents());
+        verify(orderOutboxRepository).delete(List.of(1L));
+    }
+
+    private OrderEvent event(Long id) {
+        return new OrderEvent(id, 50L, OrderEvent.ORDER_PLACED, "{}", LocalDateTime.now());
+    }
+}
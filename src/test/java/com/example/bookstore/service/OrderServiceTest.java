@@ -0,0 +1,358 @@
+package com.example.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.bookstore.dto.cart.CartLineDto;
+import com.example.bookstore.dto.order.OrderDto;
+import com.example.bookstore.dto.order.OrderItemDto;
+import com.example.bookstore.dto.order.OrderSummaryDto;
+import com.example.bookstore.dto.order.OrderSummaryPageDto;
+import com.example.bookstore.dto.order.PostOrderRequestDto;
+import com.example.bookstore.dto.order.PutOrderRequest;
+import com.example.bookstore.exception.EntityNotFoundException;
+import com.example.bookstore.exception.IllegalStatusTransitionException;
+import com.example.bookstore.exception.InvalidOrderRequestException;
+import com.example.bookstore.mapper.OrderItemMapper;
+import com.example.bookstore.mapper.OrderMapper;
+import com.example.bookstore.model.Book;
+import com.example.bookstore.model.Order;
+import com.example.bookstore.model.OrderItem;
+import com.example.bookstore.model.User;
+import com.example.bookstore.outbox.OrderOutbox;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.CartItemRepository;
+import com.example.bookstore.repository.OrderItemBatchRepository;
+import com.example.bookstore.repository.OrderItemRepository;
+import com.example.bookstore.repository.OrderRepository;
+import com.example.bookstore.repository.ShoppingCartRepository;
+import com.example.bookstore.repository.UserRepository;
+import com.example.bookstore.repository.keyset.KeysetCursorCodec;
+import com.example.bookstore.service.impl.LockFailureRetry;
+import com.example.bookstore.service.impl.OrderServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class OrderServiceTest {
+    private static final String EMAIL = "user@example.com";
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private OrderItemRepository orderItemRepository;
+    @Mock
+    private OrderItemBatchRepository orderItemBatchRepository;
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private ShoppingCartRepository shoppingCartRepository;
+    @Mock
+    private CartItemRepository cartItemRepository;
+    @Mock
+    private StockService stockService;
+    @Mock
+    private OrderOutbox orderOutbox;
+    @Mock
+    private OrderMapper orderMapper;
+    @Mock
+    private OrderItemMapper orderItemMapper;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Spy
+    private LockFailureRetry lockFailureRetry = new LockFailureRetry(3);
+    @Spy
+    private KeysetCursorCodec keysetCursorCodec = new KeysetCursorCodec(new ObjectMapper());
+    @InjectMocks
+    private OrderServiceImpl orderService;
+    private final Authentication authentication =
+            new UsernamePasswordAuthenticationToken(EMAIL, null);
+
+    @Test
+    @DisplayName("Checkout batch-inserts the cart lines and clears them in one update")
+    void placeOrder_CartWithLines_InsertsItemsInBatchAndClearsCart() {
+        runTransactionsInline();
+        List<CartLineDto> lines = List.of(
+                new CartLineDto(1L, 3L, 4L, 10L, 100L, "A", BigDecimal.valueOf(5), 2),
+                new CartLineDto(1L, 3L, 4L, 11L, 101L, "B", BigDecimal.valueOf(7), 1));
+        User user = new User();
+        user.setId(3L);
+        OrderDto expected = new OrderDto();
+        when(shoppingCartRepository.incrementVersionByUserEmail(EMAIL)).thenReturn(1);
+        when(shoppingCartRepository.findCartLinesByUserEmail(EMAIL)).thenReturn(lines);
+        when(userRepository.getReferenceById(3L)).thenReturn(user);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            invocation.<Order>getArgument(0).setId(50L);
+            return invocation.getArgument(0);
+        });
+        when(stockService.reserve(Map.of(100L, 2, 101L, 1))).thenReturn(Set.of(100L));
+        when(orderItemBatchRepository.insertOrderItems(50L, lines, Set.of(100L)))
+                .thenReturn(List.of(500L, 501L));
+        when(bookRepository.getReferenceById(any())).thenAnswer(invocation -> {
+            Book book = new Book();
+            book.setId(invocation.getArgument(0));
+            return book;
+        });
+        ArgumentCaptor<Order> order = ArgumentCaptor.forClass(Order.class);
+        when(orderMapper.toDto(order.capture(), eq(orderItemMapper))).thenReturn(expected);
+
+        OrderDto actual = orderService.placeOrder(authentication, request());
+
+        assertEquals(expected, actual);
+        assertEquals(BigDecimal.valueOf(17), order.getValue().getTotal());
+        assertEquals(Order.Status.NEW, order.getValue().getStatus());
+        assertEquals(Map.of(500L, 2, 501L, 0), order.getValue().getOrderItems().stream()
+                .collect(Collectors.toMap(OrderItem::getId, OrderItem::getReservedQuantity)));
+        verify(cartItemRepository).softDeleteAllById(List.of(10L, 11L));
+        verify(orderOutbox).orderPlaced(expected);
+    }
+
+    @Test
+    @DisplayName("Canceling an order releases the stock of its items and records the change")
+    void updateStatus_Canceled_ReleasesStock() {
+        Book book = new Book();
+        book.setId(100L);
+        OrderItem item = new OrderItem();
+        item.setId(500L);
+        item.setBook(book);
+        item.setQuantity(2);
+        item.setReservedQuantity(2);
+        Book untrackedBook = new Book();
+        untrackedBook.setId(101L);
+        OrderItem untrackedItem = new OrderItem();
+        untrackedItem.setId(501L);
+        untrackedItem.setBook(untrackedBook);
+        untrackedItem.setQuantity(4);
+        Order order = new Order();
+        order.setStatus(Order.Status.NEW);
+        order.setOrderItems(Set.of(item, untrackedItem));
+        PutOrderRequest request = new PutOrderRequest();
+        request.setStatus("canceled");
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user()));
+        when(orderRepository.findByIdAndUserId(50L, 3L)).thenReturn(Optional.of(order));
+        when(orderRepository.saveAndFlush(order)).thenReturn(order);
+
+        orderService.updateStatus(authentication, 50L, request);
+
+        assertEquals(Order.Status.CANCELED, order.getStatus());
+        verify(stockService).release(Map.of(100L, 2));
+        verify(orderOutbox).statusChanged(50L, Order.Status.NEW, Order.Status.CANCELED);
+    }
+
+    @Test
+    @DisplayName("Canceling an accepted order records the change in the outbox")
+    void cancelAcceptedOrder_Pending_RecordsStatusChange() {
+        Order order = new Order();
+        order.setStatus(Order.Status.PENDING);
+        when(orderRepository.findById(50L)).thenReturn(Optional.of(order));
+
+        orderService.cancelAcceptedOrder(50L);
+
+        assertEquals(Order.Status.CANCELED, order.getStatus());
+        verify(orderOutbox).statusChanged(50L, Order.Status.PENDING, Order.Status.CANCELED);
+    }
+
+    @Test
+    @DisplayName("An order still waiting for its asynchronous checkout can't be moved")
+    void updateStatus_Pending_ThrowsException() {
+        Order order = new Order();
+        order.setStatus(Order.Status.PENDING);
+        PutOrderRequest request = new PutOrderRequest();
+        request.setStatus("processed");
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user()));
+        when(orderRepository.findByIdAndUserId(50L, 3L)).thenReturn(Optional.of(order));
+
+        assertThrows(IllegalStatusTransitionException.class,
+                () -> orderService.updateStatus(authentication, 50L, request));
+        assertEquals(Order.Status.PENDING, order.getStatus());
+    }
+
+    @Test
+    @DisplayName("A transition the state machine doesn't allow is refused")
+    void updateStatus_ShippedToNew_ThrowsException() {
+        Order order = new Order();
+        order.setStatus(Order.Status.SHIPPED);
+        PutOrderRequest request = new PutOrderRequest();
+        request.setStatus("new");
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user()));
+        when(orderRepository.findByIdAndUserId(50L, 3L)).thenReturn(Optional.of(order));
+
+        assertThrows(IllegalStatusTransitionException.class,
+                () -> orderService.updateStatus(authentication, 50L, request));
+
+        assertEquals(Order.Status.SHIPPED, order.getStatus());
+        verifyNoInteractions(stockService, orderOutbox);
+    }
+
+    @Test
+    @DisplayName("Checkout of an empty cart is refused and saves no order")
+    void placeOrder_EmptyCart_ThrowsException() {
+        runTransactionsInline();
+        when(shoppingCartRepository.incrementVersionByUserEmail(EMAIL)).thenReturn(1);
+        when(shoppingCartRepository.findCartLinesByUserEmail(EMAIL)).thenReturn(List.of(
+                new CartLineDto(1L, 3L, 4L, null, null, null, null, null)));
+
+        assertThrows(InvalidOrderRequestException.class,
+                () -> orderService.placeOrder(authentication, request()));
+
+        verifyNoInteractions(orderRepository, orderItemBatchRepository, cartItemRepository,
+                stockService, orderOutbox);
+    }
+
+    @Test
+    @DisplayName("An empty cart is refused before an asynchronous order is accepted")
+    void acceptOrder_EmptyCart_ThrowsException() {
+        when(cartItemRepository.existsByShoppingCartUserEmail(EMAIL)).thenReturn(false);
+
+        assertThrows(InvalidOrderRequestException.class,
+                () -> orderService.acceptOrder(authentication, request()));
+
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    @DisplayName("Checkout without a cart throws and writes nothing")
+    void placeOrder_NoCart_ThrowsException() {
+        runTransactionsInline();
+        when(shoppingCartRepository.incrementVersionByUserEmail(EMAIL)).thenReturn(0);
+
+        assertThrows(EntityNotFoundException.class,
+                () -> orderService.placeOrder(authentication, request()));
+
+        verifyNoInteractions(orderRepository, orderItemBatchRepository, cartItemRepository);
+    }
+
+    @Test
+    @DisplayName("Order summaries page by (orderDate, id) and stop without a cursor")
+    void getSummaries_TwoPages_ReturnsCursorThenLastPage() {
+        LocalDateTime firstOfMay = LocalDateTime.of(2024, 5, 1, 10, 0);
+        OrderSummaryDto newest = summary(9L, firstOfMay.plusDays(1));
+        OrderSummaryDto sameDate = summary(8L, firstOfMay);
+        OrderSummaryDto oldest = summary(3L, firstOfMay);
+        when(orderRepository.findSummaries(EMAIL, PageRequest.of(0, 3)))
+                .thenReturn(List.of(newest, sameDate, oldest));
+        when(orderRepository.findSummariesAfter(EMAIL, firstOfMay, 8L,
+                PageRequest.of(0, 3))).thenReturn(List.of(oldest));
+
+        OrderSummaryPageDto first = orderService.getSummaries(authentication, null,
+                PageRequest.of(0, 2));
+        OrderSummaryPageDto last = orderService.getSummaries(authentication,
+                first.getNextCursor(), PageRequest.of(0, 2));
+
+        assertEquals(List.of(newest, sameDate), first.getContent());
+        assertEquals(List.of(oldest), last.getContent());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("A date filter with one bound is an open-ended range of the order date")
+    void getAll_FromOnly_QueriesDateRange() {
+        LocalDateTime from = LocalDateTime.of(2024, 5, 1, 0, 0);
+        Order order = new Order();
+        OrderDto expected = new OrderDto();
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user()));
+        when(orderRepository.findAllByUserIdInDateRange(eq(3L), eq(from),
+                argThat(to -> to.getYear() == 9999), eq(PageRequest.of(0, 20))))
+                .thenReturn(new PageImpl<>(List.of(order)));
+        when(orderMapper.toDto(order, orderItemMapper)).thenReturn(expected);
+
+        assertEquals(List.of(expected), orderService.getAll(authentication, from, null,
+                PageRequest.of(0, 20)));
+        verify(orderRepository, never()).findAllByUserId(any(), any());
+    }
+
+    @Test
+    @DisplayName("One order item is read by item, order and user ids")
+    void getOrderItemBy_ItemOfUsersOrder_ReturnsItem() {
+        OrderItemDto item = new OrderItemDto(500L, 100L, 2);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user()));
+        when(orderItemRepository.findOrderItem(500L, 50L, 3L)).thenReturn(Optional.of(item));
+
+        assertEquals(item, orderService.getOrderItemBy(authentication, 50L, 500L));
+    }
+
+    @Test
+    @DisplayName("An item of another user's order is not found")
+    void getOrderItemBy_ItemOfOtherOrder_ThrowsException() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user()));
+        when(orderItemRepository.findOrderItem(500L, 51L, 3L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class,
+                () -> orderService.getOrderItemBy(authentication, 51L, 500L));
+    }
+
+    @Test
+    @DisplayName("Order items are paged in the database, by id unless sorted")
+    void getAllOrderItems_Unsorted_PagesById() {
+        List<OrderItemDto> items = List.of(new OrderItemDto(520L, 100L, 1));
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user()));
+        when(orderItemRepository.findOrderItems(50L, 3L, PageRequest.of(1, 20, Sort.by("id"))))
+                .thenReturn(items);
+
+        assertEquals(items, orderService.getAllOrderItems(authentication, 50L,
+                PageRequest.of(1, 20)));
+    }
+
+    @Test
+    @DisplayName("Items of a missing order are not found rather than empty")
+    void getAllOrderItems_MissingOrder_ThrowsException() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user()));
+        when(orderItemRepository.findOrderItems(eq(51L), eq(3L), any())).thenReturn(List.of());
+        when(orderRepository.existsByIdAndUserId(51L, 3L)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class,
+                () -> orderService.getAllOrderItems(authentication, 51L, PageRequest.of(0, 20)));
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private User user() {
+        User user = new User();
+        user.setId(3L);
+        user.setEmail(EMAIL);
+        return user;
+    }
+
+    private OrderSummaryDto summary(Long id, LocalDateTime orderDate) {
+        return new OrderSummaryDto(id, orderDate, Order.Status.NEW, BigDecimal.TEN, 2L);
+    }
+
+    private PostOrderRequestDto request() {
+        PostOrderRequestDto request = new PostOrderRequestDto();
+        request.setShippingAddress("Kyiv, Shevchenko 1");
+        return request;
+    }
+}
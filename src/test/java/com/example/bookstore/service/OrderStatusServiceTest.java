@@ -0,0 +1,117 @@
+package com.example.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.bookstore.dto.order.BulkOrderStatusRequestDto;
+import com.example.bookstore.dto.order.BulkOrderStatusResultDto;
+import com.example.bookstore.dto.order.OrderStatusRejectionDto;
+import com.example.bookstore.exception.IllegalStatusTransitionException;
+import com.example.bookstore.exception.InvalidOrderRequestException;
+import com.example.bookstore.model.Order;
+import com.example.bookstore.outbox.OrderOutbox;
+import com.example.bookstore.repository.OrderStatusRepository;
+import com.example.bookstore.service.impl.OrderStatusServiceImpl;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatusServiceTest {
+    @Mock
+    private OrderStatusRepository orderStatusRepository;
+    @Mock
+    private StockService stockService;
+    @Mock
+    private OrderOutbox orderOutbox;
+    @InjectMocks
+    private OrderStatusServiceImpl orderStatusService;
+
+    @Test
+    @DisplayName("Legal transitions change in one update, the rest are reported by id")
+    void updateStatuses_MixedIds_UpdatesLegalAndRejectsOthers() {
+        ReflectionTestUtils.setField(orderStatusService, "maxOrders", 100);
+        Map<Long, Order.Status> locked = new LinkedHashMap<>();
+        locked.put(1L, Order.Status.PROCESSED);
+        locked.put(2L, Order.Status.NEW);
+        locked.put(3L, Order.Status.SHIPPED);
+        locked.put(4L, Order.Status.PROCESSED);
+        BulkOrderStatusRequestDto request = new BulkOrderStatusRequestDto();
+        request.setIds(Set.of(1L, 2L, 3L, 4L, 5L));
+        request.setStatus(Order.Status.SHIPPED);
+        when(orderStatusRepository.lockByIds(request.getIds())).thenReturn(locked);
+
+        BulkOrderStatusResultDto result = orderStatusService.updateStatuses(request);
+
+        assertEquals(2, result.updated());
+        assertEquals(List.of(
+                new OrderStatusRejectionDto(2L, Order.Status.NEW,
+                        "can't move from NEW to SHIPPED"),
+                new OrderStatusRejectionDto(3L, Order.Status.SHIPPED, "already SHIPPED"),
+                new OrderStatusRejectionDto(5L, null, "not found")), result.rejected());
+        Map<Long, Order.Status> moved = Map.of(1L, Order.Status.PROCESSED,
+                4L, Order.Status.PROCESSED);
+        verify(orderStatusRepository).updateStatus(moved.keySet(), Order.Status.SHIPPED);
+        verify(orderOutbox).statusChanged(moved, Order.Status.SHIPPED);
+        verifyNoInteractions(stockService);
+    }
+
+    @Test
+    @DisplayName("Cancelling by filter returns the stock of all canceled orders at once")
+    void updateStatuses_CancelByFilter_ReleasesStock() {
+        ReflectionTestUtils.setField(orderStatusService, "maxOrders", 100);
+        BulkOrderStatusRequestDto request = new BulkOrderStatusRequestDto();
+        request.setFromStatus(Order.Status.NEW);
+        request.setStatus(Order.Status.CANCELED);
+        request.setLimit(500);
+        Map<Long, Order.Status> locked = Map.of(7L, Order.Status.NEW);
+        when(orderStatusRepository.lockByStatus(Order.Status.NEW, null, 100))
+                .thenReturn(locked);
+        when(orderStatusRepository.sumQuantities(locked.keySet()))
+                .thenReturn(Map.of(100L, 3));
+
+        BulkOrderStatusResultDto result = orderStatusService.updateStatuses(request);
+
+        assertEquals(1, result.updated());
+        verify(stockService).release(Map.of(100L, 3));
+        verify(orderStatusRepository).updateStatus(locked.keySet(), Order.Status.CANCELED);
+    }
+
+    @Test
+    @DisplayName("A filter asking for an illegal transition is refused before locking")
+    void updateStatuses_IllegalFilterTransition_ThrowsException() {
+        BulkOrderStatusRequestDto request = new BulkOrderStatusRequestDto();
+        request.setFromStatus(Order.Status.DELIVERED);
+        request.setStatus(Order.Status.SHIPPED);
+
+        assertThrows(IllegalStatusTransitionException.class,
+                () -> orderStatusService.updateStatuses(request));
+
+        verifyNoInteractions(orderStatusRepository, orderOutbox);
+    }
+
+    @Test
+    @DisplayName("More ids than order.bulk.max-orders are refused before locking")
+    void updateStatuses_TooManyIds_ThrowsException() {
+        ReflectionTestUtils.setField(orderStatusService, "maxOrders", 2);
+        BulkOrderStatusRequestDto request = new BulkOrderStatusRequestDto();
+        request.setIds(Set.of(1L, 2L, 3L));
+        request.setStatus(Order.Status.SHIPPED);
+
+        assertThrows(InvalidOrderRequestException.class,
+                () -> orderStatusService.updateStatuses(request));
+
+        verifyNoInteractions(orderStatusRepository, orderOutbox);
+    }
+}
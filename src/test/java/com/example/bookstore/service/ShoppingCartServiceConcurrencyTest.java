@@ -0,0 +1,87 @@
+package com.example.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+import com.example.bookstore.config.CustomMySqlContainer;
+import com.example.bookstore.dto.cart.AddItemToCartRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.jdbc.Sql;
+
+@SpringBootTest
+@Sql(scripts = {"/sql/clean-up.sql",
+        "/sql/create-default-categories.sql",
+        "/sql/create-default-books.sql"})
+@Sql(scripts = "/sql/clean-up.sql", executionPhase = AFTER_TEST_METHOD)
+@Sql(statements = "DELETE FROM users WHERE email = 'cart-user@example.com'",
+        executionPhase = AFTER_TEST_METHOD)
+class ShoppingCartServiceConcurrencyTest {
+    private static final CustomMySqlContainer container = CustomMySqlContainer.getInstance();
+    private static final String EMAIL = "cart-user@example.com";
+    private static final int TABS = 2;
+    private static final int ADDS_PER_TAB = 20;
+    @Autowired
+    private ShoppingCartService shoppingCartService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void beforeAll() {
+        container.start();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO users (email, password, first_name, last_name) "
+                + "VALUES (?, 'password', 'Cart', 'User')", EMAIL);
+        jdbcTemplate.update("INSERT INTO shopping_carts (user_id) "
+                + "SELECT id FROM users WHERE email = ?", EMAIL);
+    }
+
+    @Test
+    @DisplayName("Concurrent adds of the same book sum into one line, each bumping the version")
+    void addToCart_SameBookFromTwoTabs_KeepsOneLine() throws Exception {
+        Authentication authentication = new UsernamePasswordAuthenticationToken(EMAIL, null);
+        AddItemToCartRequest request = new AddItemToCartRequest();
+        request.setBookId(100L);
+        request.setQuantity(1);
+        ExecutorService executor = Executors.newFixedThreadPool(TABS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> tabs = new ArrayList<>();
+        for (int tab = 0; tab < TABS; tab++) {
+            tabs.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ADDS_PER_TAB; i++) {
+                    shoppingCartService.addToCart(authentication, request);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> tab : tabs) {
+            tab.get();
+        }
+        executor.shutdown();
+
+        List<Integer> quantities = jdbcTemplate.queryForList("SELECT ci.quantity "
+                + "FROM cart_items ci JOIN shopping_carts sc ON sc.id = ci.shopping_cart_id "
+                + "JOIN users u ON u.id = sc.user_id WHERE u.email = ?", Integer.class, EMAIL);
+        assertEquals(List.of(TABS * ADDS_PER_TAB), quantities);
+        assertEquals(Long.valueOf(TABS * ADDS_PER_TAB),
+                shoppingCartService.findVersion(authentication));
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.bookstore.dto.cart.AddItemToCartRequest;
+import com.example.bookstore.dto.cart.CartDeltaDto;
+import com.example.bookstore.dto.cart.CartItemDto;
+import com.example.bookstore.dto.cart.CartItemKey;
+import com.example.bookstore.dto.cart.CartLineDto;
+import com.example.bookstore.dto.cart.CartOperation;
+import com.example.bookstore.dto.cart.ShoppingCartDto;
+import com.example.bookstore.dto.cart.UpdateCartRequest;
+import com.example.bookstore.dto.cart.UpdateItemRequest;
+import com.example.bookstore.exception.EntityNotFoundException;
+import com.example.bookstore.mapper.CartItemMapper;
+import com.example.bookstore.mapper.ShoppingCartMapper;
+import com.example.bookstore.model.ShoppingCart;
+import com.example.bookstore.model.User;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.CartItemBatchRepository;
+import com.example.bookstore.repository.CartItemRepository;
+import com.example.bookstore.repository.ShoppingCartRepository;
+import com.example.bookstore.repository.UserRepository;
+import com.example.bookstore.service.impl.ShoppingCartServiceImpl;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+@ExtendWith(MockitoExtension.class)
+class ShoppingCartServiceTest {
+    private static final String EMAIL = "user@example.com";
+    @Mock
+    private ShoppingCartRepository shoppingCartRepository;
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private CartItemRepository cartItemRepository;
+    @Mock
+    private ShoppingCartMapper shoppingCartMapper;
+    @Mock
+    private CartItemMapper cartItemMapper;
+    @Mock
+    private CartItemBatchRepository cartItemBatchRepository;
+    @InjectMocks
+    private ShoppingCartServiceImpl shoppingCartService;
+    private final Authentication authentication =
+            new UsernamePasswordAuthenticationToken(EMAIL, null);
+    private User user;
+    private ShoppingCart shoppingCart;
+    private AddItemToCartRequest request;
+    private List<CartLineDto> cartLines;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(3L);
+        user.setEmail(EMAIL);
+        shoppingCart = new ShoppingCart();
+        shoppingCart.setId(5L);
+        shoppingCart.setUser(user);
+        request = new AddItemToCartRequest();
+        request.setBookId(7L);
+        request.setQuantity(2);
+        cartLines = List.of(new CartLineDto(5L, 3L, 4L, 11L, 7L, "Effective Java",
+                BigDecimal.TEN, 2));
+    }
+
+    @Test
+    @DisplayName("The cart is read with the single projection query")
+    void getByUser_ExistingCart_ReadsCartLines() {
+        ShoppingCartDto expected = new ShoppingCartDto();
+        when(shoppingCartRepository.findCartLinesByUserEmail(EMAIL)).thenReturn(cartLines);
+        when(shoppingCartMapper.toDto(cartLines, cartItemMapper)).thenReturn(expected);
+
+        assertSame(expected, shoppingCartService.getByUser(authentication));
+        verifyNoInteractions(cartItemRepository, bookRepository);
+    }
+
+    @Test
+    @DisplayName("Adding a book upserts its cart line instead of inserting a new one")
+    void addToCart_ExistingBook_UpsertsQuantity() {
+        stubCurrentCart();
+        CartItemDto changedItem = new CartItemDto();
+        when(bookRepository.existsById(7L)).thenReturn(true);
+        when(shoppingCartRepository.findVersionById(5L)).thenReturn(4L);
+        when(shoppingCartRepository.findCartLines(5L, Set.of(7L))).thenReturn(cartLines);
+        when(cartItemMapper.toDto(cartLines.get(0))).thenReturn(changedItem);
+
+        CartDeltaDto delta = shoppingCartService.addToCart(authentication, request);
+
+        assertEquals(4L, delta.getVersion());
+        assertEquals(Set.of(changedItem), delta.getChangedItems());
+        assertEquals(Set.of(), delta.getRemovedBookIds());
+        InOrder inOrder = inOrder(shoppingCartRepository, cartItemRepository);
+        inOrder.verify(shoppingCartRepository).incrementVersion(5L);
+        inOrder.verify(cartItemRepository).addQuantity(5L, 7L, 2);
+        verify(cartItemRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Adding an unknown book fails before touching the cart lines")
+    void addToCart_UnknownBook_ThrowsException() {
+        stubCurrentCart();
+        when(bookRepository.existsById(7L)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class,
+                () -> shoppingCartService.addToCart(authentication, request));
+        verify(cartItemRepository, never()).addQuantity(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("A batch of operations is folded per book into one statement per kind")
+    void updateCart_Operations_AppliesNetChangesInBatches() {
+        stubCurrentCart();
+        UpdateCartRequest updateRequest = new UpdateCartRequest();
+        updateRequest.setOperations(List.of(
+                operation(CartOperation.Type.ADD, 7L, 2),
+                operation(CartOperation.Type.ADD, 7L, 1),
+                operation(CartOperation.Type.SET_QUANTITY, 8L, 5),
+                operation(CartOperation.Type.REMOVE, 8L, 0),
+                operation(CartOperation.Type.ADD, 9L, 1),
+                operation(CartOperation.Type.REMOVE, 9L, 0),
+                operation(CartOperation.Type.ADD, 9L, 4),
+                operation(CartOperation.Type.REMOVE, 10L, 0)));
+        when(bookRepository.findExistingIds(Set.of(7L, 9L))).thenReturn(List.of(7L, 9L));
+        when(shoppingCartRepository.findVersionById(5L)).thenReturn(4L);
+        when(shoppingCartRepository.findCartLines(5L, Set.of(7L, 9L))).thenReturn(cartLines);
+
+        CartDeltaDto delta = shoppingCartService.updateCart(authentication, updateRequest);
+
+        assertEquals(4L, delta.getVersion());
+        assertEquals(Set.of(8L, 10L), delta.getRemovedBookIds());
+        InOrder inOrder = inOrder(shoppingCartRepository, cartItemBatchRepository);
+        inOrder.verify(shoppingCartRepository).incrementVersion(5L);
+        inOrder.verify(cartItemBatchRepository).addQuantities(5L, Map.of(7L, 3));
+        verify(cartItemBatchRepository).setQuantities(5L, Map.of(9L, 4));
+        verify(cartItemBatchRepository).removeBooks(5L, List.of(8L, 10L));
+    }
+
+    @Test
+    @DisplayName("A batch adding an unknown book changes nothing")
+    void updateCart_UnknownBook_ThrowsException() {
+        stubCurrentCart();
+        UpdateCartRequest updateRequest = new UpdateCartRequest();
+        updateRequest.setOperations(List.of(
+                operation(CartOperation.Type.ADD, 7L, 1),
+                operation(CartOperation.Type.SET_QUANTITY, 404L, 1)));
+        when(bookRepository.findExistingIds(Set.of(7L, 404L))).thenReturn(List.of(7L));
+
+        assertThrows(EntityNotFoundException.class,
+                () -> shoppingCartService.updateCart(authentication, updateRequest));
+        verifyNoInteractions(cartItemBatchRepository);
+        verify(shoppingCartRepository, never()).incrementVersion(anyLong());
+    }
+
+    @Test
+    @DisplayName("Updating an own line is one scoped statement and returns the changed line")
+    void updateCartItem_OwnItem_ReturnsChangedLine() {
+        UpdateItemRequest updateRequest = new UpdateItemRequest();
+        updateRequest.setQuantity(2);
+        CartItemDto changedItem = new CartItemDto();
+        when(cartItemRepository.updateQuantityOfUserItem(11L, EMAIL, 2)).thenReturn(2);
+        when(shoppingCartRepository.findCartLineByItemId(11L))
+                .thenReturn(Optional.of(cartLines.get(0)));
+        when(cartItemMapper.toDto(cartLines.get(0))).thenReturn(changedItem);
+
+        CartDeltaDto delta = shoppingCartService.updateCartItem(authentication, 11L,
+                updateRequest);
+
+        assertEquals(4L, delta.getVersion());
+        assertEquals(Set.of(changedItem), delta.getChangedItems());
+        verifyNoInteractions(userRepository);
+        verify(cartItemRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Updating a line of another user's cart is not found")
+    void updateCartItem_ForeignItem_ThrowsException() {
+        UpdateItemRequest updateRequest = new UpdateItemRequest();
+        updateRequest.setQuantity(2);
+        when(cartItemRepository.updateQuantityOfUserItem(11L, EMAIL, 2)).thenReturn(0);
+
+        assertThrows(EntityNotFoundException.class,
+                () -> shoppingCartService.updateCartItem(authentication, 11L, updateRequest));
+        verify(shoppingCartRepository, never()).findCartLineByItemId(anyLong());
+    }
+
+    @Test
+    @DisplayName("Deleting a line reports its book as removed under the new version")
+    void deleteCartItem_OwnItem_ReturnsRemovedBook() {
+        CartItemKey cartItemKey = mock(CartItemKey.class);
+        when(cartItemKey.getShoppingCartId()).thenReturn(5L);
+        when(cartItemKey.getBookId()).thenReturn(7L);
+        when(cartItemKey.getVersion()).thenReturn(9L);
+        when(cartItemRepository.deleteUserItem(11L, EMAIL)).thenReturn(2);
+        when(cartItemRepository.findKeyById(11L)).thenReturn(Optional.of(cartItemKey));
+
+        CartDeltaDto delta = shoppingCartService.deleteCartItem(11L, authentication);
+
+        assertEquals(9L, delta.getVersion());
+        assertEquals(Set.of(), delta.getChangedItems());
+        assertEquals(Set.of(7L), delta.getRemovedBookIds());
+    }
+
+    @Test
+    @DisplayName("Deleting a line of another user's cart is not found")
+    void deleteCartItem_ForeignItem_ThrowsException() {
+        when(cartItemRepository.deleteUserItem(11L, EMAIL)).thenReturn(0);
+
+        assertThrows(EntityNotFoundException.class,
+                () -> shoppingCartService.deleteCartItem(11L, authentication));
+        verify(cartItemRepository, never()).findKeyById(anyLong());
+    }
+
+    private void stubCurrentCart() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        when(shoppingCartRepository.findByUserId(3L)).thenReturn(Optional.of(shoppingCart));
+    }
+
+    private static CartOperation operation(CartOperation.Type type, Long bookId, int quantity) {
+        CartOperation operation = new CartOperation();
+        operation.setType(type);
+        operation.setBookId(bookId);
+        operation.setQuantity(quantity);
+        return operation;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.bookstore.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.intThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bookstore.dto.book.BookStockDto;
+import com.example.bookstore.exception.InsufficientStockException;
+import com.example.bookstore.repository.BookRepository;
+import com.example.bookstore.repository.BookStockRepository;
+import com.example.bookstore.service.impl.StockServiceImpl;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class StockServiceTest {
+    @Mock
+    private BookStockRepository bookStockRepository;
+    @Mock
+    private BookRepository bookRepository;
+    @InjectMocks
+    private StockServiceImpl stockService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(stockService, "stripes", 4);
+    }
+
+    @Test
+    @DisplayName("A reservation one stripe can cover locks nothing else")
+    void reserve_StripeHasEnough_DecrementsOneStripe() {
+        when(bookStockRepository.take(eq(1L), anyInt(), eq(2))).thenReturn(true);
+
+        assertEquals(Set.of(1L), stockService.reserve(Map.of(1L, 2)));
+
+        verify(bookStockRepository, never()).lockStripes(1L);
+    }
+
+    @Test
+    @DisplayName("A short stripe falls back to draining all stripes of the book")
+    void reserve_StripeShort_DrainsStripesInOrder() {
+        when(bookStockRepository.take(eq(1L), anyInt(), eq(5))).thenReturn(false);
+        when(bookStockRepository.lockStripes(1L)).thenReturn(stripes(0, 2, 3, 4));
+
+        assertEquals(Set.of(1L), stockService.reserve(Map.of(1L, 5)));
+
+        verify(bookStockRepository).take(1L, 1, 2);
+        verify(bookStockRepository).take(1L, 2, 3);
+        verify(bookStockRepository, never()).take(eq(1L), eq(3), intThat(taken -> taken < 5));
+    }
+
+    @Test
+    @DisplayName("Reserving more than the stock of all stripes throws")
+    void reserve_NotEnoughStock_ThrowsException() {
+        when(bookStockRepository.take(eq(1L), anyInt(), eq(10))).thenReturn(false);
+        when(bookStockRepository.lockStripes(1L)).thenReturn(stripes(1, 2, 3, 0));
+
+        assertThrows(InsufficientStockException.class,
+                () -> stockService.reserve(Map.of(1L, 10)));
+    }
+
+    @Test
+    @DisplayName("Books without stock rows are not tracked and always reserve")
+    void reserve_UntrackedBook_DoesNothing() {
+        when(bookStockRepository.take(eq(1L), anyInt(), eq(3))).thenReturn(false);
+        when(bookStockRepository.lockStripes(1L)).thenReturn(Map.of());
+
+        assertEquals(Set.of(), stockService.reserve(Map.of(1L, 3)));
+
+        verify(bookStockRepository, never()).take(eq(1L), anyInt(), eq(0));
+    }
+
+    @Test
+    @DisplayName("Releasing units of an untracked book creates no stock")
+    void release_UntrackedBook_PutsNothingBack() {
+        when(bookStockRepository.putBack(eq(1L), anyInt(), eq(3))).thenReturn(false);
+        when(bookStockRepository.lockStripes(1L)).thenReturn(Map.of());
+
+        stockService.release(Map.of(1L, 3));
+
+        verify(bookStockRepository, never()).replace(eq(1L), any());
+        verify(bookStockRepository).putBack(eq(1L), anyInt(), eq(3));
+    }
+
+    @Test
+    @DisplayName("Stock is spread evenly over the stripes")
+    void setStock_Quantity_SplitsOverStripes() {
+        when(bookRepository.existsById(1L)).thenReturn(true);
+
+        BookStockDto stock = stockService.setStock(1L, 10);
+
+        assertEquals(new BookStockDto(1L, 10), stock);
+        verify(bookStockRepository).replace(1L, new int[]{3, 3, 2, 2});
+    }
+
+    private Map<Integer, Integer> stripes(int... quantities) {
+        Map<Integer, Integer> stripes = new LinkedHashMap<>();
+        for (int stripe = 0; stripe < quantities.length; stripe++) {
+            stripes.put(stripe, quantities[stripe]);
+        }
+        return stripes;
+    }
+}
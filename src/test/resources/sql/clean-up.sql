@@ -1,3 +1,11 @@
+DELETE FROM order_outbox;
+DELETE FROM order_idempotency_keys;
+DELETE FROM order_items;
+DELETE FROM orders;
+DELETE FROM cart_items;
+DELETE FROM shopping_carts;
+DELETE FROM book_stock_stripes;
 DELETE FROM books_categories;
 DELETE FROM books;
-DELETE FROM categories;
\ No newline at end of file
+DELETE FROM categories;
+DELETE FROM authors;
\ No newline at end of file
@@ -1,9 +1,11 @@
 -- /sql/create-default-books.sql
-INSERT INTO books (id, title, author, isbn, description, price, cover_image, is_deleted)
-VALUES (100, 'Special case', 'First Author', '1231244214', 'best practices for Java Platform', 20.00, 'some image', FALSE);
+INSERT INTO authors (id, name) VALUES (100, 'First Author'), (101, 'Second Author'), (10, 'Third Author');
 
-INSERT INTO books (id, title, author, isbn, description, price, cover_image, is_deleted)
-VALUES (101, 'Second Book', 'Second Author', '431413241', 'best practices for Java Platform', 30.00, 'some image', FALSE);
+INSERT INTO books (id, title, author, author_id, isbn, description, price, cover_image, is_deleted)
+VALUES (100, 'Special case', 'First Author', 100, '1231244214', 'best practices for Java Platform', 20.00, 'some image', FALSE);
 
-INSERT INTO books (id, title, author, isbn, description, price, cover_image, is_deleted)
-VALUES (10, 'Third Book', 'Third Author', '764831641', 'best practices for Java Platform', 15.00, 'some image', FALSE);
\ No newline at end of file
+INSERT INTO books (id, title, author, author_id, isbn, description, price, cover_image, is_deleted)
+VALUES (101, 'Second Book', 'Second Author', 101, '431413241', 'best practices for Java Platform', 30.00, 'some image', FALSE);
+
+INSERT INTO books (id, title, author, author_id, isbn, description, price, cover_image, is_deleted)
+VALUES (10, 'Third Book', 'Third Author', 10, '764831641', 'best practices for Java Platform', 15.00, 'some image', FALSE);